@@ -0,0 +1,52 @@
+package benchmark;
+
+import model.dao.MapDAO;
+import model.map.GameMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parsing of a text map file by {@link MapDAO}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapLoadingBenchmark {
+    @Param({"16", "64", "256", "1024", "4096", "8192"})
+    private int size;
+    private Path mapPath;
+
+    @Setup(Level.Trial)
+    public void writeMap() throws IOException {
+        this.mapPath = SyntheticMap.write(this.size);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteMap() throws IOException {
+        Files.deleteIfExists(this.mapPath);
+    }
+
+    @Benchmark
+    public GameMap getMapFromFile() {
+        return new MapDAO(this.mapPath.toString()).getMapFromFile();
+    }
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import model.map.GameMap;
+import model.map.MapPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the lookups of the {@link GameMap}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapQueryBenchmark {
+    @Param({"16", "64", "256", "1024", "4096", "8192"})
+    private int size;
+    private GameMap map;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void loadMap() throws IOException {
+        this.map = SyntheticMap.load(this.size);
+        this.counter = 0;
+    }
+
+    @Benchmark
+    public MapPosition getFirstPositionByCell() {
+        return this.map.getFirstPositionByCell(GameMap.END_CELL);
+    }
+
+    /**
+     * Function to read the cells of the {@link GameMap} one after another, row by row.
+     * @return Character of the cell read.
+     */
+    @Benchmark
+    public char getCell() {
+        int i = this.counter++;
+
+        return this.map.getCell(i % this.size, (i / this.size) % this.size);
+    }
+}
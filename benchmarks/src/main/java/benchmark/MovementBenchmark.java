@@ -0,0 +1,71 @@
+package benchmark;
+
+import model.entities.EntityDirection;
+import model.game.GameEngine;
+import model.game.GameState;
+import model.game.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the movement checks and the steps of the {@link GameEngine}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MovementBenchmark {
+    private static final EntityDirection[] DIRECTIONS = EntityDirection.values();
+    @Param({"16", "64", "256", "1024", "4096", "8192"})
+    private int size;
+    private GameEngine engine;
+    private GameState state;
+    private Random random;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void startGame() throws IOException {
+        this.engine = new GameEngine(SyntheticMap.load(this.size));
+        this.state = this.engine.newGame();
+        this.random = new Random(this.size);
+        this.counter = 0;
+    }
+
+    @Benchmark
+    public boolean canEntityMove() {
+        int i = this.counter++;
+
+        return this.engine.canEntityMove(i % this.size, (i / this.size) % this.size, DIRECTIONS[i & 3]);
+    }
+
+    /**
+     * Function to step a random walk of the player, starting a new game whenever the current one ends.
+     * @return {@link GameState} after the step.
+     */
+    @Benchmark
+    public GameState step() {
+        if(this.state.getStatus() != GameStatus.PLAYING) {
+            this.state = this.engine.newGame();
+        }
+
+        this.state = this.engine.step(this.state, DIRECTIONS[this.random.nextInt(DIRECTIONS.length)]);
+
+        return this.state;
+    }
+}
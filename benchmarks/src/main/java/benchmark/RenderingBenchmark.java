@@ -0,0 +1,92 @@
+package benchmark;
+
+import model.game.GameEngine;
+import model.map.GameMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import view.GameBoard;
+import view.SpriteAtlas;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the painting of the {@link GameBoard} on an offscreen image of a fixed size, both rebuilding the
+ * terrain layer and reusing it (whole board and a single dirty cell). Maps too big to fit on the image are painted
+ * through the camera viewport, so the terrain layer is not used with them. The sprites are read from
+ * ./resources/assets, so the benchmarks run from the root of the project.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderingBenchmark {
+    private static final int RENDER_SIZE = 1024;
+    @Param({"16", "64", "256", "1024", "4096", "8192"})
+    private int size;
+    private GameBoard gameBoard;
+    private BufferedImage image;
+    private Rectangle cell;
+
+    @Setup(Level.Trial)
+    public void createBoard() throws IOException {
+        GameMap map = SyntheticMap.load(this.size);
+        int cellSize = RENDER_SIZE / this.size >= GameBoard.MIN_FIT_TILE_SIZE ? RENDER_SIZE / this.size :
+                GameBoard.CAMERA_TILE_SIZE;
+
+        this.gameBoard = new GameBoard(map, new GameEngine(map).newGame(), new SpriteAtlas());
+        this.image = new BufferedImage(RENDER_SIZE, RENDER_SIZE, BufferedImage.TYPE_INT_RGB);
+        this.cell = new Rectangle(cellSize, cellSize, cellSize, cellSize);
+
+        this.gameBoard.setSize(RENDER_SIZE, RENDER_SIZE);
+    }
+
+    @Benchmark
+    public BufferedImage paintTerrain() {
+        this.gameBoard.invalidateTerrain();
+
+        return this.paint(null);
+    }
+
+    @Benchmark
+    public BufferedImage paintCached() {
+        return this.paint(null);
+    }
+
+    @Benchmark
+    public BufferedImage paintCell() {
+        return this.paint(this.cell);
+    }
+
+    /**
+     * Function to paint the {@link GameBoard} on the offscreen image.
+     * @param clip Area to repaint or null to repaint the whole image.
+     * @return Painted image, consumed by JMH so that the painting cannot be discarded.
+     */
+    private BufferedImage paint(Rectangle clip) {
+        Graphics2D g = this.image.createGraphics();
+
+        if(clip != null) {
+            g.setClip(clip);
+        }
+
+        this.gameBoard.paint(g);
+        g.dispose();
+
+        return this.image;
+    }
+}
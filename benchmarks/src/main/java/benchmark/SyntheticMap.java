@@ -0,0 +1,104 @@
+package benchmark;
+
+import model.dao.MapDAO;
+import model.map.GameMap;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Generator of square text map files for the benchmarks. The maps are surrounded by walls, have the start cell on
+ * the top-left corner, the end cell on the bottom-right corner and a fixed-seed scattering of walls, spikes and
+ * enemies in between, so every run measures the same maps.
+ */
+public class SyntheticMap {
+    private static final long SEED = 0x5EEDL;
+    private static final int WALL_PERCENT = 20;
+    private static final int SPIKES_PERCENT = 5;
+    private static final int ENEMIES_PER_MILLE = 2;
+
+    /**
+     * Function to write a synthetic map file to a temporary file.
+     * @param size Number of cells per side (at least 4).
+     * @return Path of the map file, deleted when the JVM exits.
+     */
+    public static Path write(int size) throws IOException {
+        Path path = Files.createTempFile("map-" + size + "-", ".txt");
+        Random random = new Random(SEED + size);
+        char[] row = new char[size];
+
+        path.toFile().deleteOnExit();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.US_ASCII)) {
+            writer.write(size + "\n" + size + "\n");
+
+            for(int y = 0; y < size; y++) {
+                for(int x = 0; x < size; x++) {
+                    row[x] = SyntheticMap.chooseCell(random, size, x, y);
+                }
+
+                writer.write(row);
+                writer.write('\n');
+            }
+        }
+
+        return path;
+    }
+
+    /**
+     * Function to write a synthetic map file and load it.
+     * @param size Number of cells per side (at least 4).
+     * @return {@link GameMap} of the synthetic map.
+     */
+    public static GameMap load(int size) throws IOException {
+        Path path = SyntheticMap.write(size);
+        GameMap map = new MapDAO(path.toString()).getMapFromFile();
+
+        Files.deleteIfExists(path);
+
+        if(map == null) {
+            throw new IOException("Cannot load the synthetic map of size " + size);
+        }
+
+        return map;
+    }
+
+    /**
+     * Function to choose the type of a cell of the synthetic map.
+     * @param random Seeded generator of the map.
+     * @param size Number of cells per side.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Character of the cell.
+     */
+    private static char chooseCell(Random random, int size, int x, int y) {
+        if(x == 0 || y == 0 || x == size - 1 || y == size - 1) {
+            return GameMap.WALL_CELL;
+        }
+
+        /* Keep the surroundings of the start and end cells free so that the player can always move */
+        if(x <= 2 && y <= 2) {
+            return x == 1 && y == 1 ? GameMap.START_PLAYER_CELL : GameMap.EMPTY_CELL;
+        }
+
+        if(x >= size - 3 && y >= size - 3) {
+            return x == size - 2 && y == size - 2 ? GameMap.END_CELL : GameMap.EMPTY_CELL;
+        }
+
+        int roll = random.nextInt(1000);
+
+        if(roll < ENEMIES_PER_MILLE) {
+            return roll % 2 == 0 ? GameMap.START_FLY_CELL : GameMap.START_SPIDER_CELL;
+        } else if(roll < WALL_PERCENT * 10) {
+            return GameMap.WALL_CELL;
+        } else if(roll < (WALL_PERCENT + SPIKES_PERCENT) * 10) {
+            return GameMap.SPIKES_CELL;
+        }
+
+        return GameMap.EMPTY_CELL;
+    }
+}
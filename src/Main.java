@@ -1,29 +1,65 @@
 import controller.DirectionButtonsController;
-import model.dao.MapDAO;
+import controller.GameLoop;
+import controller.KeyboardController;
+import controller.ResourceWatcher;
+import model.dao.FilePath;
+import model.dao.InputLogDAO;
+import model.dao.MapCache;
+import model.dao.SnapshotDAO;
 
 import javax.swing.*;
 
 import model.map.GameMap;
-import model.entities.player.Player;
+import model.game.GameEngine;
+import model.game.GameState;
+import model.metrics.Metrics;
+import view.SpriteAtlas;
 import view.View;
 
 public class Main {
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
-            MapDAO mapDAO = new MapDAO();
+            /* Expose the runtime metrics through JMX */
+            Metrics.registerMBean();
 
-            GameMap map = new GameMap(mapDAO.getMaxCellsX(), mapDAO.getMaxCellsY(), mapDAO.getMapFromFile());
+            /* Decode every sprite once so that repaints never touch the disk */
+            SpriteAtlas spriteAtlas = new SpriteAtlas();
 
-            Player player = new Player(map.getPositionByCell(GameMap.START_PLAYER_CELL).get(0));
+            /* Load the map through the cache, getting a copy-on-write map of its own for the game */
+            GameMap map = MapCache.getMap(FilePath.MAP_FILE_PATH);
 
-            View view = new View(map, player);
+            if(map == null) {
+                return;
+            }
+
+            /* Create the headless engine that holds the rules of the game */
+            GameEngine engine = new GameEngine(map);
+            GameState state = engine.newGame();
+
+            View view = new View(map, state, spriteAtlas);
+
+            /* Record every command of the session so that it can be replayed */
+            InputLogDAO inputLogDAO = new InputLogDAO(FilePath.INPUT_LOG_FILE_PATH);
+            inputLogDAO.startRecording(map);
+
+            /* Create the game loop that runs the simulation on its own thread */
+            GameLoop gameLoop = new GameLoop(engine, state, view, new SnapshotDAO(FilePath.SNAPSHOT_FILE_PATH, map),
+                    inputLogDAO);
 
             /* Create a controller for the game direction buttons and attach it to view */
-            DirectionButtonsController directionButtonsController = new DirectionButtonsController(view);
+            DirectionButtonsController directionButtonsController = new DirectionButtonsController(gameLoop);
             view.addActionListener(directionButtonsController);
 
+            /* Create a controller for the keyboard and attach it to view */
+            KeyboardController keyboardController = new KeyboardController(gameLoop, view);
+            view.addKeyListener(keyboardController);
+
+            /* Reload the map and the sprites when they change on disk */
+            new ResourceWatcher(FilePath.RESOURCES_DIRECTORY_PATH, FilePath.MAP_FILE_PATH, gameLoop, view).start();
+
             view.setVisible(true);
+            gameLoop.start();
         });
     }
 }
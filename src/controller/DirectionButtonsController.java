@@ -7,10 +7,10 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 public class DirectionButtonsController implements ActionListener {
-    private final View view;
+    private final GameLoop gameLoop;
 
-    public DirectionButtonsController(View view) {
-        this.view = view;
+    public DirectionButtonsController(GameLoop gameLoop) {
+        this.gameLoop = gameLoop;
     }
 
     /**
@@ -21,14 +21,12 @@ public class DirectionButtonsController implements ActionListener {
     @Override
     public void actionPerformed(ActionEvent event) {
         switch (event.getActionCommand()) {
-            case View.CONTROL_UP -> this.view.movePlayer(EntityDirection.UP);
-            case View.CONTROL_DOWN -> this.view.movePlayer(EntityDirection.DOWN);
-            case View.CONTROL_LEFT -> this.view.movePlayer(EntityDirection.LEFT);
-            case View.CONTROL_RIGHT -> this.view.movePlayer(EntityDirection.RIGHT);
+            case View.CONTROL_UP -> this.gameLoop.enqueueMove(EntityDirection.UP, event.getWhen(), false);
+            case View.CONTROL_DOWN -> this.gameLoop.enqueueMove(EntityDirection.DOWN, event.getWhen(), false);
+            case View.CONTROL_LEFT -> this.gameLoop.enqueueMove(EntityDirection.LEFT, event.getWhen(), false);
+            case View.CONTROL_RIGHT -> this.gameLoop.enqueueMove(EntityDirection.RIGHT, event.getWhen(), false);
+            case View.CONTROL_RESET -> this.gameLoop.requestReset();
             default -> System.out.println("ERROR: Invalid button pressed!");
         }
-
-        /* Update view */
-        this.view.updateView();
     }
 }
\ No newline at end of file
@@ -0,0 +1,355 @@
+package controller;
+
+import model.dao.InputLogDAO;
+import model.dao.SnapshotDAO;
+import model.entities.EntityDirection;
+import model.game.GameEngine;
+import model.game.GameSnapshot;
+import model.game.GameState;
+import model.game.GameStatus;
+import model.game.InputCommand;
+import model.map.MapReload;
+import model.metrics.Metrics;
+import model.metrics.TickEvent;
+import view.View;
+
+import javax.swing.*;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+public class GameLoop implements Runnable {
+    public static final int TICKS_PER_SECOND = 60;
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+    private static final int AUTOSAVE_TICKS = 5 * TICKS_PER_SECOND;
+    public static final InputCoalescingPolicy DEFAULT_COALESCING_POLICY = InputCoalescingPolicy.COLLAPSE_REPEATS;
+    private final GameEngine engine;
+    private final View view;
+    private final SnapshotDAO snapshotDAO;
+    private final InputLogDAO inputLogDAO;
+    private final ExecutorService snapshotExecutor;
+    private final Queue<QueuedMove> inputQueue;
+    private final AtomicBoolean resetRequested;
+    private final AtomicBoolean saveRequested;
+    private final AtomicBoolean restoreRequested;
+    private final AtomicBoolean saveInProgress;
+    private final AtomicReference<MapReload> pendingReload;
+    private final AtomicReference<GameState> latestState;
+    private final AtomicLong latestInputTime;
+    private final AtomicBoolean publishScheduled;
+    private volatile InputCoalescingPolicy coalescingPolicy;
+    private volatile boolean running;
+    private Thread thread;
+    private GameState state;
+
+    /**
+     * Constructor of a {@link GameLoop}.
+     * @param engine {@link GameEngine} that simulates the game.
+     * @param state Initial {@link GameState}.
+     * @param view {@link View} that displays the game.
+     * @param snapshotDAO {@link SnapshotDAO} where the snapshots of the game are saved.
+     * @param inputLogDAO {@link InputLogDAO} where every applied command is recorded, already recording.
+     */
+    public GameLoop(GameEngine engine, GameState state, View view, SnapshotDAO snapshotDAO, InputLogDAO inputLogDAO) {
+        this.engine = engine;
+        this.state = state;
+        this.view = view;
+        this.snapshotDAO = snapshotDAO;
+        this.inputLogDAO = inputLogDAO;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.inputQueue = new ConcurrentLinkedQueue<>();
+        this.resetRequested = new AtomicBoolean(false);
+        this.saveRequested = new AtomicBoolean(false);
+        this.restoreRequested = new AtomicBoolean(false);
+        this.saveInProgress = new AtomicBoolean(false);
+        this.pendingReload = new AtomicReference<>();
+        this.latestState = new AtomicReference<>();
+        this.latestInputTime = new AtomicLong(0);
+        this.publishScheduled = new AtomicBoolean(false);
+        this.coalescingPolicy = DEFAULT_COALESCING_POLICY;
+        this.running = false;
+    }
+
+    /**
+     * Function to start the simulation thread of the {@link GameLoop}.
+     */
+    public void start() {
+        if(this.running) {
+            return;
+        }
+
+        this.running = true;
+        this.thread = new Thread(this, "game-loop");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Function to stop the simulation thread of the {@link GameLoop}.
+     */
+    public void stop() {
+        this.running = false;
+
+        if(this.thread != null) {
+            LockSupport.unpark(this.thread);
+        }
+    }
+
+    /**
+     * Function to enqueue a move of the {@link model.entities.player.Player} from an input event. The time the event
+     * spent waiting on the EDT is taken into account, so the measured latency starts when the event happened. It
+     * never blocks, so it can be called from the EDT.
+     * @param direction {@link model.entities.player.Player}'s desired move direction.
+     * @param eventTime Time of the input event, in milliseconds since the epoch (as given by AWT).
+     * @param isRepeat Whether the event comes from the auto-repeat of a held key.
+     */
+    public void enqueueMove(EntityDirection direction, long eventTime, boolean isRepeat) {
+        long waitingTime = Math.max(0, System.currentTimeMillis() - eventTime);
+
+        this.inputQueue.offer(new QueuedMove(direction, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(waitingTime),
+                isRepeat));
+    }
+
+    /**
+     * Setter of the policy that merges the moves queued between two ticks.
+     * @param coalescingPolicy {@link InputCoalescingPolicy} to apply from the next tick.
+     */
+    public void setCoalescingPolicy(InputCoalescingPolicy coalescingPolicy) {
+        this.coalescingPolicy = coalescingPolicy;
+    }
+
+    /**
+     * Function to request a new game. The reset is applied by the simulation thread on the next tick.
+     */
+    public void requestReset() {
+        this.resetRequested.set(true);
+    }
+
+    /**
+     * Function to request a snapshot of the game. It is taken by the simulation thread on the next tick.
+     */
+    public void requestSave() {
+        this.saveRequested.set(true);
+    }
+
+    /**
+     * Function to request the game to be restored from the last snapshot. It is restored by the simulation thread on
+     * the next tick.
+     */
+    public void requestRestore() {
+        this.restoreRequested.set(true);
+    }
+
+    /**
+     * Function to request the new version of the map file to be applied. It is applied by the simulation thread
+     * between two ticks, so a tick never sees half of the changes.
+     * @param reload {@link MapReload} of the same size as the map of the game.
+     */
+    public void requestMapReload(MapReload reload) {
+        this.pendingReload.set(reload);
+    }
+
+    /**
+     * Function to run the fixed-timestep loop. When the simulation falls behind it runs the missed ticks back to
+     * back (up to {@link #MAX_CATCH_UP_TICKS}) instead of stretching the tick period.
+     */
+    @Override
+    public void run() {
+        long nextTickTime = System.nanoTime();
+
+        while(this.running) {
+            this.tick();
+
+            nextTickTime += TICK_NANOS;
+            long remainingTime = nextTickTime - System.nanoTime();
+
+            if(remainingTime > 0) {
+                LockSupport.parkNanos(remainingTime);
+            } else if(-remainingTime > TICK_NANOS * MAX_CATCH_UP_TICKS) {
+                /* Too far behind, drop the missed ticks instead of spiralling */
+                Metrics.DROPPED_TICKS.add(-remainingTime / TICK_NANOS);
+                nextTickTime = System.nanoTime();
+            }
+        }
+
+        this.inputLogDAO.close();
+    }
+
+    /**
+     * Function to advance the simulation a single tick, measuring how long it takes.
+     */
+    private void tick() {
+        long startTime = System.nanoTime();
+        TickEvent event = new TickEvent();
+
+        event.begin();
+
+        this.simulateTick();
+
+        event.tick = this.state.getTick();
+        event.events = this.state.getEvents();
+        event.commit();
+        Metrics.TICK_TIME.record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Function to apply the pending requests and input and simulate a single step of the game.
+     */
+    private void simulateTick() {
+        boolean hasChanged = false;
+
+        /* Apply a pending reset */
+        if(this.resetRequested.getAndSet(false)) {
+            this.inputLogDAO.record(this.state.getTick(), InputCommand.RESET);
+            this.state = this.engine.newGame();
+            this.inputQueue.clear();
+            hasChanged = true;
+        }
+
+        /* Apply a pending restore */
+        if(this.restoreRequested.getAndSet(false)) {
+            long tick = this.state.getTick();
+
+            if(this.restoreSnapshot()) {
+                this.inputLogDAO.record(tick, InputCommand.RESTORE);
+                hasChanged = true;
+            }
+        }
+
+        /* Apply a pending reload of the map file, repainting only the changed cells */
+        MapReload reload = this.pendingReload.getAndSet(null);
+
+        if(reload != null) {
+            GameState reloadedState = this.engine.applyMapReload(this.state, reload);
+
+            /* Mark the reload on the log, and do not make the next snapshot relative to the old version */
+            this.inputLogDAO.record(this.state.getTick(), InputCommand.RELOAD);
+            this.snapshotDAO.requestFullSnapshot();
+            hasChanged |= reloadedState != this.state;
+            this.state = reloadedState;
+            SwingUtilities.invokeLater(() -> this.view.invalidateCells(reload.getChangedCells()));
+        }
+
+        if(this.state.getStatus() != GameStatus.PLAYING) {
+            /* Ignore any input until the game is reset */
+            this.inputQueue.clear();
+        }
+
+        QueuedMove move = this.coalescingPolicy.poll(this.inputQueue);
+        EntityDirection direction = move != null ? move.getDirection() : null;
+
+        this.state = this.engine.step(this.state, direction);
+        hasChanged |= this.state.getEvents() != 0;
+
+        /* Measure the latency only of the moves that change what is painted, from the oldest unpainted one */
+        if(move != null && hasChanged) {
+            this.latestInputTime.accumulateAndGet(move.getReceivedTime(),
+                    (oldest, time) -> oldest != 0 ? oldest : time);
+        }
+
+        /* Record the applied move, appending the recorded commands to the log once per second */
+        if(direction != null) {
+            this.inputLogDAO.record(this.state.getTick(), InputCommand.fromDirection(direction));
+        }
+
+        if(this.state.getTick() % TICKS_PER_SECOND == 0) {
+            this.inputLogDAO.flush();
+        }
+
+        if(hasChanged) {
+            this.publish(this.state);
+        }
+
+        /* Save a snapshot when requested and periodically while playing */
+        if(this.saveRequested.getAndSet(false) ||
+                (this.state.getStatus() == GameStatus.PLAYING && this.state.getTick() % AUTOSAVE_TICKS == 0)) {
+            this.saveSnapshot();
+        }
+    }
+
+    /**
+     * Function to capture a snapshot of the game and write it on the background. Capturing only copies what the
+     * {@link GameState} does not already hold, and the writer only stores what has changed since the previous
+     * snapshot, so autosaving does not stall the simulation. If the previous snapshot is still being written, this
+     * one is skipped.
+     */
+    private void saveSnapshot() {
+        if(!this.saveInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        GameSnapshot snapshot = this.engine.createSnapshot(this.state, this.snapshotDAO.isFullSnapshotNeeded());
+
+        this.snapshotExecutor.execute(() -> {
+            try {
+                this.snapshotDAO.write(snapshot);
+            } finally {
+                this.saveInProgress.set(false);
+            }
+        });
+    }
+
+    /**
+     * Function to restore the game from the last snapshot, once every pending snapshot has been written.
+     * @return Whether the game has been restored or not.
+     */
+    private boolean restoreSnapshot() {
+        GameSnapshot snapshot;
+
+        try {
+            snapshot = this.snapshotExecutor.submit(this.snapshotDAO::read).get();
+        } catch (InterruptedException | ExecutionException exception) {
+            System.out.println("ERROR: Cannot restore the snapshot!");
+            return false;
+        }
+
+        GameState restoredState = snapshot != null ? this.engine.restoreSnapshot(snapshot) : null;
+
+        if(restoredState == null) {
+            return false;
+        }
+
+        this.state = restoredState;
+        this.inputQueue.clear();
+
+        /* The next snapshot cannot be relative to the last written one anymore */
+        this.snapshotDAO.requestFullSnapshot();
+
+        if(!snapshot.getMapChunks().isEmpty()) {
+            SwingUtilities.invokeLater(this.view::invalidateMap);
+        }
+
+        return true;
+    }
+
+    /**
+     * Function to hand a snapshot to the EDT. If the EDT has not painted the previous snapshot yet, it is replaced so
+     * that the EDT only ever paints the latest one. The time the latest applied input was received goes with it.
+     * @param state {@link GameState} to publish.
+     */
+    private void publish(GameState state) {
+        this.latestState.set(state);
+
+        if(this.publishScheduled.getAndSet(true)) {
+            Metrics.COALESCED_STATES.increment();
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            this.publishScheduled.set(false);
+            this.view.updateView(this.latestState.get(), this.latestInputTime.getAndSet(0));
+        });
+    }
+}
@@ -0,0 +1,210 @@
+package controller;
+
+import model.entities.EntityDirection;
+import model.game.GameEngine;
+import model.game.GameState;
+import model.map.GameMap;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Game of a single client of the {@link SessionServer}, run by its own thread with blocking reads. Each session has
+ * its own {@link GameEngine} (player, enemies and their state) playing on a copy-on-write {@link GameMap}, whose cells
+ * are shared with every other session on the same map. The protocol is line based: the client sends a command per
+ * line and the session answers with the resulting state.
+ * <ul>
+ *     <li>UP, DOWN, LEFT or RIGHT: moves the player a cell and simulates a tick.</li>
+ *     <li>WAIT [ticks]: simulates some ticks without moving (one by default).</li>
+ *     <li>RESET: starts a new game on the same map.</li>
+ *     <li>MAP name: starts a new game on another map of the server.</li>
+ *     <li>QUIT: closes the session.</li>
+ * </ul>
+ * Every answer is a line "STATE tick x y health status", or "ERROR message" if the command is not valid.
+ */
+public class GameSession implements Runnable {
+    public static final int MAX_WAIT_TICKS = GameLoop.TICKS_PER_SECOND * 60;
+    private final int id;
+    private final Socket socket;
+    private final SessionServer server;
+    private String mapName;
+    private GameEngine engine;
+    private GameState state;
+
+    /**
+     * Constructor of a {@link GameSession}.
+     * @param id Id of the session on the {@link SessionServer}.
+     * @param socket Connected socket of the client.
+     * @param server {@link SessionServer} that holds the shared maps.
+     * @param mapName Name of the map of the first game.
+     */
+    public GameSession(int id, Socket socket, SessionServer server, String mapName) {
+        this.id = id;
+        this.socket = socket;
+        this.server = server;
+        this.mapName = mapName;
+    }
+
+    /**
+     * Function to serve the client until it quits or disconnects.
+     */
+    @Override
+    public void run() {
+        try (Socket socket = this.socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                     StandardCharsets.US_ASCII));
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                     StandardCharsets.US_ASCII))) {
+            this.startGame(this.server.getMap(this.mapName));
+
+            GameMap map = this.engine.getMap();
+
+            writer.write("HELLO " + this.id + " " + this.mapName + " " + map.getMaxCellsX() + " " +
+                    map.getMaxCellsY());
+            writer.newLine();
+            this.writeState(writer);
+            writer.flush();
+
+            for(String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if(!this.execute(line.trim(), writer)) {
+                    break;
+                }
+
+                /* Only flush when the client has nothing else pipelined, so bursts of commands share a write */
+                if(!reader.ready()) {
+                    writer.flush();
+                }
+            }
+
+            writer.flush();
+        } catch (IOException exception) {
+            /* The client has disconnected or timed out, nothing to answer */
+        } finally {
+            this.server.onSessionClosed(this);
+        }
+    }
+
+    /**
+     * Function to start a new game on a {@link GameMap}.
+     * @param map {@link GameMap} of the game.
+     */
+    private void startGame(GameMap map) {
+        /* Many sessions already run at once, so the enemies of each one are updated on its own thread */
+        this.engine = new GameEngine(map, false);
+        this.state = this.engine.newGame();
+    }
+
+    /**
+     * Function to execute a command of the client and write the answer.
+     * @param command Command line sent by the client.
+     * @param writer Writer of the answers.
+     * @return Whether the session goes on or not.
+     * @throws IOException If the answer cannot be written.
+     */
+    private boolean execute(String command, BufferedWriter writer) throws IOException {
+        String[] arguments = command.split("\\s+");
+
+        switch (arguments[0].toUpperCase()) {
+            case "UP" -> this.step(EntityDirection.UP, 1);
+            case "DOWN" -> this.step(EntityDirection.DOWN, 1);
+            case "LEFT" -> this.step(EntityDirection.LEFT, 1);
+            case "RIGHT" -> this.step(EntityDirection.RIGHT, 1);
+            case "WAIT" -> {
+                int ticks = arguments.length > 1 ? this.parseTicks(arguments[1]) : 1;
+
+                if(ticks <= 0) {
+                    this.writeError(writer, "The ticks to wait must be between 1 and " + MAX_WAIT_TICKS);
+                    return true;
+                }
+
+                this.step(null, ticks);
+            }
+            case "RESET" -> this.state = this.engine.newGame();
+            case "MAP" -> {
+                GameMap map = arguments.length > 1 ? this.server.getMap(arguments[1]) : null;
+
+                if(map == null) {
+                    this.writeError(writer, "Unknown map");
+                    return true;
+                }
+
+                this.mapName = arguments[1];
+                this.startGame(map);
+            }
+            case "QUIT" -> {
+                return false;
+            }
+            default -> {
+                this.writeError(writer, "Unknown command");
+                return true;
+            }
+        }
+
+        this.writeState(writer);
+
+        return true;
+    }
+
+    /**
+     * Function to simulate some ticks of the game. The player only moves on the first one.
+     * @param direction Player's move direction or null to stay still.
+     * @param ticks Number of ticks to simulate.
+     */
+    private void step(EntityDirection direction, int ticks) {
+        this.state = this.engine.step(this.state, direction);
+
+        for(int i = 1; i < ticks; i++) {
+            this.state = this.engine.step(this.state, null);
+        }
+    }
+
+    /**
+     * Function to parse the number of ticks of a WAIT command.
+     * @param text Text of the argument.
+     * @return Number of ticks or 0 if it is not a valid number of ticks.
+     */
+    private int parseTicks(String text) {
+        try {
+            int ticks = Integer.parseInt(text);
+
+            return ticks <= MAX_WAIT_TICKS ? ticks : 0;
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    /**
+     * Function to write the current state of the game.
+     * @param writer Writer of the answers.
+     * @throws IOException If the state cannot be written.
+     */
+    private void writeState(BufferedWriter writer) throws IOException {
+        writer.write("STATE " + this.state.getTick() + " " + this.state.getPlayerX() + " " +
+                this.state.getPlayerY() + " " + this.state.getPlayerHealth() + " " + this.state.getStatus());
+        writer.newLine();
+    }
+
+    /**
+     * Function to write an error for the last command.
+     * @param writer Writer of the answers.
+     * @param message Message of the error.
+     * @throws IOException If the error cannot be written.
+     */
+    private void writeError(BufferedWriter writer, String message) throws IOException {
+        writer.write("ERROR " + message);
+        writer.newLine();
+    }
+
+    /**
+     * Getter of the id of the session.
+     * @return Id of the session.
+     */
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,80 @@
+package controller;
+
+import model.metrics.Metrics;
+
+import java.util.Queue;
+
+/**
+ * Policies to take the move of the {@link model.entities.player.Player} applied on a tick from the moves queued since
+ * the previous one. When the moves arrive faster than the ticks (key-repeat storms or a stalled loop), the policy
+ * decides which of them are merged so that the {@link model.entities.player.Player} does not lag behind the input.
+ * The merged move keeps the time the oldest of its moves was received, so the input latency is not underestimated.
+ */
+public enum InputCoalescingPolicy {
+    /**
+     * Every move is applied, one per tick, in the order they were received.
+     */
+    QUEUE_ALL {
+        @Override
+        QueuedMove poll(Queue<QueuedMove> queue) {
+            return queue.poll();
+        }
+    },
+    /**
+     * The auto-repeated moves queued behind a move of the same direction are merged with it, while deliberate
+     * presses and changes of direction are applied in order.
+     */
+    COLLAPSE_REPEATS {
+        @Override
+        QueuedMove poll(Queue<QueuedMove> queue) {
+            QueuedMove move = queue.poll();
+
+            if(move == null) {
+                return null;
+            }
+
+            int merged = 0;
+
+            for(QueuedMove next = queue.peek(); next != null && next.isRepeat() &&
+                    next.getDirection() == move.getDirection(); next = queue.peek()) {
+                queue.poll();
+                merged++;
+            }
+
+            Metrics.COALESCED_INPUTS.add(merged);
+
+            return move;
+        }
+    },
+    /**
+     * Only the latest move is applied and every older one is discarded.
+     */
+    LATEST_ONLY {
+        @Override
+        QueuedMove poll(Queue<QueuedMove> queue) {
+            QueuedMove oldest = queue.poll();
+            QueuedMove latest = oldest;
+            int merged = 0;
+
+            for(QueuedMove next = queue.poll(); next != null; next = queue.poll()) {
+                latest = next;
+                merged++;
+            }
+
+            if(merged == 0) {
+                return latest;
+            }
+
+            Metrics.COALESCED_INPUTS.add(merged);
+
+            return new QueuedMove(latest.getDirection(), oldest.getReceivedTime(), latest.isRepeat());
+        }
+    };
+
+    /**
+     * Function to take the move to apply on the current tick from the queue, merging the moves of the policy.
+     * @param queue Queue of the pending moves, oldest first.
+     * @return Move to apply or null if there are no pending moves.
+     */
+    abstract QueuedMove poll(Queue<QueuedMove> queue);
+}
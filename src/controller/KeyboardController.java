@@ -11,10 +11,17 @@ public class KeyboardController implements KeyListener {
     private final static int A = 65;
     private final static int S = 83;
     private final static int D = 68;
+    private final static int F3 = 114;
+    private final static int F5 = 116;
+    private final static int F9 = 120;
+    private final GameLoop gameLoop;
     private final View view;
+    private final boolean[] isDirectionHeld;
 
-    public KeyboardController(View view) {
+    public KeyboardController(GameLoop gameLoop, View view) {
+        this.gameLoop = gameLoop;
         this.view = view;
+        this.isDirectionHeld = new boolean[EntityDirection.values().length];
     }
 
     /**
@@ -27,15 +34,27 @@ public class KeyboardController implements KeyListener {
     @Override
     public void keyPressed(KeyEvent event) {
         switch(event.getKeyCode()) {
-            case W -> this.view.movePlayer(EntityDirection.UP);
-            case A -> this.view.movePlayer(EntityDirection.LEFT);
-            case S -> this.view.movePlayer(EntityDirection.DOWN);
-            case D -> this.view.movePlayer(EntityDirection.RIGHT);
+            case W -> this.enqueueMove(EntityDirection.UP, event);
+            case A -> this.enqueueMove(EntityDirection.LEFT, event);
+            case S -> this.enqueueMove(EntityDirection.DOWN, event);
+            case D -> this.enqueueMove(EntityDirection.RIGHT, event);
+            case F3 -> this.view.toggleMetricsOverlay();
+            case F5 -> this.gameLoop.requestSave();
+            case F9 -> this.gameLoop.requestRestore();
             default -> System.out.println("ERROR: Invalid key from the keyboard pressed!");
         }
+    }
+
+    /**
+     * Function to enqueue a move on the {@link GameLoop}, marking it as a repeat if its key was already held down.
+     * @param direction {@link model.entities.player.Player}'s desired move direction.
+     * @param event Key event of the move.
+     */
+    private void enqueueMove(EntityDirection direction, KeyEvent event) {
+        boolean isRepeat = this.isDirectionHeld[direction.ordinal()];
 
-        /* Update view */
-        this.view.updateView();
+        this.isDirectionHeld[direction.ordinal()] = true;
+        this.gameLoop.enqueueMove(direction, event.getWhen(), isRepeat);
     }
 
     /**
@@ -59,6 +78,11 @@ public class KeyboardController implements KeyListener {
      */
     @Override
     public void keyReleased(KeyEvent e) {
-
+        switch(e.getKeyCode()) {
+            case W -> this.isDirectionHeld[EntityDirection.UP.ordinal()] = false;
+            case A -> this.isDirectionHeld[EntityDirection.LEFT.ordinal()] = false;
+            case S -> this.isDirectionHeld[EntityDirection.DOWN.ordinal()] = false;
+            case D -> this.isDirectionHeld[EntityDirection.RIGHT.ordinal()] = false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package controller;
+
+import model.entities.EntityDirection;
+
+/**
+ * Move of the {@link model.entities.player.Player} waiting on the {@link GameLoop}'s queue, with the time it was
+ * received so that the latency until it is painted can be measured.
+ */
+final class QueuedMove {
+    private final EntityDirection direction;
+    private final long receivedTime;
+    private final boolean isRepeat;
+
+    QueuedMove(EntityDirection direction, long receivedTime, boolean isRepeat) {
+        this.direction = direction;
+        this.receivedTime = receivedTime;
+        this.isRepeat = isRepeat;
+    }
+
+    /**
+     * Getter of the {@link model.entities.player.Player}'s desired move direction.
+     * @return Move direction.
+     */
+    EntityDirection getDirection() {
+        return direction;
+    }
+
+    /**
+     * Getter of the time the move was received.
+     * @return {@link System#nanoTime()} when the move was received.
+     */
+    long getReceivedTime() {
+        return receivedTime;
+    }
+
+    /**
+     * Getter of whether the move comes from the auto-repeat of a held key.
+     * @return Whether the move is a repeat or not.
+     */
+    boolean isRepeat() {
+        return isRepeat;
+    }
+}
@@ -0,0 +1,109 @@
+package controller;
+
+import model.dao.InputLogDAO;
+import model.dao.MapCache;
+import model.game.GameEngine;
+import model.game.GameState;
+import model.game.InputCommand;
+import model.game.InputLog;
+import model.map.GameMap;
+
+/**
+ * Headless runner that re-executes a recorded {@link InputLog} on a {@link GameEngine} as fast as possible. As the
+ * simulation only depends on the {@link GameMap} and the commands of each tick, the replayed game is exactly the
+ * recorded one.
+ */
+public class ReplayRunner {
+    private final GameEngine engine;
+    private long steppedTicks;
+
+    public ReplayRunner(GameEngine engine) {
+        this.engine = engine;
+        this.steppedTicks = 0;
+    }
+
+    /**
+     * Function to replay a log from a new game, up to the tick of its last command.
+     * @param log {@link InputLog} to replay.
+     * @return Final {@link GameState} (the last one before a restore or a reload, which cannot be replayed).
+     */
+    public GameState replay(InputLog log) {
+        GameState state = this.engine.newGame();
+
+        for(int i = 0; i < log.getCount(); i++) {
+            InputCommand command = log.getCommand(i);
+            long tick = log.getTick(i);
+
+            /* Moves are applied by the step of their tick, while resets and restores happen after their tick */
+            long lastEmptyTick = command.getDirection() != null ? tick - 1 : tick;
+
+            while(state.getTick() < lastEmptyTick) {
+                state = this.engine.step(state, null);
+                this.steppedTicks++;
+            }
+
+            switch (command) {
+                case RESET -> state = this.engine.newGame();
+                case RESTORE -> {
+                    System.out.println("ERROR: The input log restores a snapshot on tick " + tick +
+                            ", which cannot be replayed!");
+                    return state;
+                }
+                case RELOAD -> {
+                    System.out.println("ERROR: The input log reloads the map file on tick " + tick +
+                            ", which cannot be replayed!");
+                    return state;
+                }
+                default -> {
+                    state = this.engine.step(state, command.getDirection());
+                    this.steppedTicks++;
+                }
+            }
+        }
+
+        return state;
+    }
+
+    /**
+     * Getter of the number of ticks simulated by every replay so far.
+     * @return Number of simulated ticks.
+     */
+    public long getSteppedTicks() {
+        return steppedTicks;
+    }
+
+    /**
+     * Function to replay an input log from the command line and print the final state of the game. The map file is
+     * loaded as the game loads it (see {@link MapCache}), so text, binary and oversized map files can be replayed.
+     * Usage: ReplayRunner [map file] [input log file]
+     * @param args Paths of the map file and the input log file.
+     */
+    public static void main(String[] args) {
+        if(args.length < 2) {
+            System.out.println("ERROR: Missing the paths of the map file and the input log file!");
+            return;
+        }
+
+        GameMap map = MapCache.getMap(args[0]);
+
+        if(map == null) {
+            return;
+        }
+
+        InputLog log = new InputLogDAO(args[1]).read(map);
+
+        if(log == null) {
+            return;
+        }
+
+        ReplayRunner replayRunner = new ReplayRunner(new GameEngine(map));
+        long startTime = System.nanoTime();
+        GameState state = replayRunner.replay(log);
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.printf("Replayed %d commands over %d ticks in %.3f s (%.0f ticks/s)%n", log.getCount(),
+                replayRunner.getSteppedTicks(), elapsedSeconds, replayRunner.getSteppedTicks() / elapsedSeconds);
+        System.out.println("Status " + state.getStatus() + ", health " + state.getPlayerHealth() + ", player at " +
+                state.getPlayerPosition());
+    }
+}
@@ -0,0 +1,190 @@
+package controller;
+
+import model.dao.MapCache;
+import model.map.MapReload;
+import view.SpriteAtlas;
+import view.View;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watcher of the resources directory that reloads the files that change while the game runs. Only the changed files
+ * are loaded again, on the watcher's own thread: a changed map file is parsed and diffed against its cached version
+ * and only the differing cells are handed to the {@link GameLoop}, while a changed sprite is decoded and swapped on
+ * the atlas. Neither the simulation nor the EDT waits for any file.
+ */
+public class ResourceWatcher implements Runnable {
+    private static final long QUIET_MILLIS = 200;
+    private final Path root;
+    private final Path mapPath;
+    private final GameLoop gameLoop;
+    private final View view;
+    private final Map<WatchKey, Path> directories;
+    private WatchService watchService;
+
+    /**
+     * Constructor of a {@link ResourceWatcher}.
+     * @param root Path of the directory to watch, with all its subdirectories.
+     * @param mapPath Path of the map file of the running game.
+     * @param gameLoop {@link GameLoop} of the running game.
+     * @param view {@link View} of the running game.
+     */
+    public ResourceWatcher(String root, String mapPath, GameLoop gameLoop, View view) {
+        this.root = Paths.get(root);
+        this.mapPath = Paths.get(mapPath).toAbsolutePath().normalize();
+        this.gameLoop = gameLoop;
+        this.view = view;
+        this.directories = new HashMap<>();
+    }
+
+    /**
+     * Function to start watching the directories on a background thread.
+     * @return Whether the watcher has started or not.
+     */
+    public boolean start() {
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.registerDirectories(this.root);
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot watch the resources directory!");
+            return false;
+        }
+
+        Thread thread = new Thread(this, "resource-watcher");
+        thread.setDaemon(true);
+        thread.start();
+
+        return true;
+    }
+
+    /**
+     * Function to stop watching the directories.
+     */
+    public void stop() {
+        try {
+            this.watchService.close();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot stop watching the resources directory!");
+        }
+    }
+
+    /**
+     * Function to watch a directory and all its subdirectories.
+     * @param directory Path of the directory.
+     * @throws IOException If the directory cannot be walked or watched.
+     */
+    private void registerDirectories(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for(Path path : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                this.directories.put(path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY), path);
+            }
+        }
+    }
+
+    /**
+     * Function to wait for changes and reload the changed files. Editors usually write a file in several steps, so
+     * the changes are gathered until the directories have been quiet for {@link #QUIET_MILLIS} milliseconds and then
+     * each changed file is reloaded once.
+     */
+    @Override
+    public void run() {
+        try {
+            while(true) {
+                Set<Path> changedFiles = new LinkedHashSet<>();
+
+                this.collectChanges(this.watchService.take(), changedFiles);
+
+                for(WatchKey key = this.watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS); key != null;
+                    key = this.watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) {
+                    this.collectChanges(key, changedFiles);
+                }
+
+                for(Path path : changedFiles) {
+                    this.reloadFile(path);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException exception) {
+            /* The watcher has been stopped */
+        }
+    }
+
+    /**
+     * Function to gather the files changed on a watched directory, watching the new subdirectories too.
+     * @param key Signalled {@link WatchKey} of the directory.
+     * @param changedFiles Set where the changed files are added.
+     */
+    private void collectChanges(WatchKey key, Set<Path> changedFiles) {
+        Path directory = this.directories.get(key);
+
+        for(WatchEvent<?> event : key.pollEvents()) {
+            if(directory == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    this.registerDirectories(path);
+                } catch (IOException exception) {
+                    System.out.println("ERROR: Cannot watch the directory " + path + "!");
+                }
+            } else {
+                changedFiles.add(path);
+            }
+        }
+
+        if(!key.reset()) {
+            this.directories.remove(key);
+        }
+    }
+
+    /**
+     * Function to reload a changed file if it is a cached map or a sprite. Any other file is ignored.
+     * @param path Path of the changed file.
+     */
+    private void reloadFile(Path path) {
+        if(!Files.isRegularFile(path)) {
+            return;
+        }
+
+        if(MapCache.isCached(path.toString())) {
+            MapReload reload = MapCache.reload(path.toString());
+
+            if(reload == null || !path.toAbsolutePath().normalize().equals(this.mapPath)) {
+                return;
+            }
+
+            if(!reload.isCompatible()) {
+                System.out.println("ERROR: The map " + path + " has changed its size, restart the game to play it!");
+                return;
+            }
+
+            this.gameLoop.requestMapReload(reload);
+        } else if(SpriteAtlas.isSpriteFile(path)) {
+            BufferedImage sprite = SpriteAtlas.decodeSprite(path);
+
+            if(sprite != null) {
+                SwingUtilities.invokeLater(() -> this.view.replaceSprite(path, sprite));
+            }
+        }
+    }
+}
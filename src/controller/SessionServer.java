@@ -0,0 +1,202 @@
+package controller;
+
+import model.dao.FilePath;
+import model.dao.MapCache;
+import model.map.GameMap;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server that hosts many independent games at once on the loopback interface, one {@link GameSession} per connected
+ * client. Each session runs on its own virtual thread when the runtime has them, or on a small-stack platform thread
+ * otherwise. Every map file is loaded once by the {@link MapCache}, and each game plays on a copy-on-write
+ * {@link GameMap} over it.
+ */
+public class SessionServer {
+    public static final int DEFAULT_PORT = 7777;
+    private static final int PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+    private static final int IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private final Map<String, String> mapPaths;
+    private final String defaultMapName;
+    private final ExecutorService sessionExecutor;
+    private final AtomicInteger nextSessionId;
+    private final AtomicInteger activeSessions;
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructor of a {@link SessionServer}.
+     * @param mapPaths Paths of the map files by name, in order. The first one is the map of the new sessions.
+     */
+    public SessionServer(Map<String, String> mapPaths) {
+        this.mapPaths = new LinkedHashMap<>(mapPaths);
+        this.defaultMapName = mapPaths.keySet().iterator().next();
+        this.sessionExecutor = SessionServer.newSessionExecutor();
+        this.nextSessionId = new AtomicInteger(0);
+        this.activeSessions = new AtomicInteger(0);
+    }
+
+    /**
+     * Function to create the executor of the sessions: one virtual thread per task if the runtime supports them
+     * (looked up by reflection, so the game still runs on older runtimes), or one platform thread per task otherwise.
+     * @return Instance of {@link ExecutorService}.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException exception) {
+            AtomicInteger threadCount = new AtomicInteger(0);
+
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(null, runnable, "session-" + threadCount.getAndIncrement(),
+                        PLATFORM_THREAD_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Function to start listening on the loopback interface and accept clients on a background thread.
+     * @param port Port to listen on (0 for any free port).
+     * @return Whether the server has started or not.
+     */
+    public boolean start(int port) {
+        try {
+            this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot listen on port " + port + "!");
+            return false;
+        }
+
+        Thread acceptor = new Thread(this::acceptSessions, "session-acceptor");
+        acceptor.start();
+
+        return true;
+    }
+
+    /**
+     * Function to accept clients until the server is stopped, starting a {@link GameSession} for each of them.
+     */
+    private void acceptSessions() {
+        while(!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(IDLE_TIMEOUT_MILLIS);
+
+                this.activeSessions.incrementAndGet();
+                this.sessionExecutor.execute(new GameSession(this.nextSessionId.getAndIncrement(), socket, this,
+                        this.defaultMapName));
+            } catch (SocketException exception) {
+                /* The server socket has been closed by stop() */
+            } catch (IOException exception) {
+                System.out.println("ERROR: Cannot accept a session!");
+            }
+        }
+    }
+
+    /**
+     * Function to stop accepting clients. The sessions already running go on until their clients quit.
+     */
+    public void stop() {
+        try {
+            if(this.serverSocket != null) {
+                this.serverSocket.close();
+            }
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot close the server socket!");
+        }
+
+        this.sessionExecutor.shutdown();
+    }
+
+    /**
+     * Function to get a map of the server for a new game.
+     * @param name Name of the map.
+     * @return Copy-on-write {@link GameMap} or null if the server has no map with that name.
+     */
+    public GameMap getMap(String name) {
+        String path = this.mapPaths.get(name);
+
+        return path != null ? MapCache.getMap(path) : null;
+    }
+
+    /**
+     * Function called by a {@link GameSession} when its client has gone.
+     * @param session Closed {@link GameSession}.
+     */
+    void onSessionClosed(GameSession session) {
+        this.activeSessions.decrementAndGet();
+    }
+
+    /**
+     * Getter of the number of sessions being played.
+     * @return Number of active sessions.
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Getter of the port the server listens on.
+     * @return Local port or -1 if the server has not started.
+     */
+    public int getPort() {
+        return serverSocket != null ? serverSocket.getLocalPort() : -1;
+    }
+
+    /**
+     * Function to start a server from the command line. Each map is named after its file name.
+     * Usage: SessionServer [port] [map file...]
+     * @param args Port and paths of the map files.
+     */
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+
+        try {
+            port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        } catch (NumberFormatException exception) {
+            System.out.println("ERROR: Invalid port " + args[0] + "!");
+            return;
+        }
+
+        Map<String, String> mapPaths = new LinkedHashMap<>();
+
+        for(int i = 1; i < Math.max(args.length, 2); i++) {
+            String path = i < args.length ? args[i] : FilePath.MAP_FILE_PATH;
+
+            /* Load every map up front, so that the first session of each one does not wait */
+            GameMap map = MapCache.getMap(path);
+
+            if(map == null) {
+                return;
+            }
+
+            if(map.getFirstPositionByCell(GameMap.START_PLAYER_CELL) == null) {
+                System.out.println("ERROR: The map " + path + " has no start cell!");
+                return;
+            }
+
+            mapPaths.put(Paths.get(path).getFileName().toString(), path);
+        }
+
+        SessionServer server = new SessionServer(mapPaths);
+
+        if(server.start(port)) {
+            System.out.println("Serving " + mapPaths.keySet() + " on " +
+                    InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package model.ai;
+
+import model.entities.EntityDirection;
+import model.map.GameMap;
+
+import java.util.Arrays;
+
+/**
+ * Distances (in moves) from every cell around an origin to the origin, computed with a single breadth-first flood.
+ * The flood is limited to a square window of the given radius around the origin, so its cost and memory do not
+ * depend on the size of the {@link GameMap}, and it is shared by every entity that wants to reach the origin.
+ */
+public class DistanceField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final EntityDirection[] DIRECTIONS = EntityDirection.values();
+    private final int radius;
+    private final int windowSize;
+    private final int[] distances;
+    private final int[] queue;
+    private int originX;
+    private int originY;
+    private boolean isComputed;
+
+    public DistanceField(int radius) {
+        this.radius = radius;
+        this.windowSize = radius * 2 + 1;
+        this.distances = new int[this.windowSize * this.windowSize];
+        this.queue = new int[this.windowSize * this.windowSize];
+        this.isComputed = false;
+
+        Arrays.fill(this.distances, UNREACHABLE);
+    }
+
+    /**
+     * Function to flood the {@link GameMap} from an origin. Walls cannot be crossed. Nothing is computed again if the
+     * origin has not changed since the last flood.
+     * @param map {@link GameMap} to flood.
+     * @param originX X-axis position of the origin.
+     * @param originY Y-axis position of the origin.
+     */
+    public void compute(GameMap map, int originX, int originY) {
+        if(this.isComputed && originX == this.originX && originY == this.originY) {
+            return;
+        }
+
+        this.originX = originX;
+        this.originY = originY;
+        this.isComputed = true;
+
+        Arrays.fill(this.distances, UNREACHABLE);
+
+        int head = 0, tail = 0;
+        int originIndex = this.radius * this.windowSize + this.radius;
+
+        this.distances[originIndex] = 0;
+        this.queue[tail++] = originIndex;
+
+        while(head < tail) {
+            int index = this.queue[head++];
+            int localX = index % this.windowSize;
+            int localY = index / this.windowSize;
+            int distance = this.distances[index];
+
+            for(EntityDirection direction : DIRECTIONS) {
+                int nextLocalX = localX + direction.getDeltaX();
+                int nextLocalY = localY + direction.getDeltaY();
+
+                if(nextLocalX < 0 || nextLocalY < 0 || nextLocalX >= this.windowSize || nextLocalY >= this.windowSize) {
+                    continue;
+                }
+
+                int nextIndex = nextLocalY * this.windowSize + nextLocalX;
+                int nextX = originX - this.radius + nextLocalX;
+                int nextY = originY - this.radius + nextLocalY;
+
+                if(this.distances[nextIndex] == UNREACHABLE && map.isInside(nextX, nextY) &&
+                        map.getCell(nextX, nextY) != GameMap.WALL_CELL) {
+                    this.distances[nextIndex] = distance + 1;
+                    this.queue[tail++] = nextIndex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Function to force the next {@link #compute(GameMap, int, int)} to flood again (e.g. when the map changes).
+     */
+    public void invalidate() {
+        this.isComputed = false;
+    }
+
+    /**
+     * Function to get the distance from a cell to the origin.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Number of moves to reach the origin or {@link #UNREACHABLE} if the cell is a wall, it is not
+     * connected to the origin or it is out of the radius of the flood.
+     */
+    public int getDistance(int x, int y) {
+        int localX = x - this.originX + this.radius;
+        int localY = y - this.originY + this.radius;
+
+        if(!this.isComputed || localX < 0 || localY < 0 || localX >= this.windowSize || localY >= this.windowSize) {
+            return UNREACHABLE;
+        }
+
+        return this.distances[localY * this.windowSize + localX];
+    }
+
+    /**
+     * Function to get the direction of the move that gets closer to the origin from a cell. Ties are broken by the
+     * order of {@link EntityDirection}, so the result is deterministic.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Direction of the next move or null if the cell is the origin or cannot reach it.
+     */
+    public EntityDirection getNextStep(int x, int y) {
+        int distance = this.getDistance(x, y);
+
+        if(distance == UNREACHABLE || distance == 0) {
+            return null;
+        }
+
+        for(EntityDirection direction : DIRECTIONS) {
+            if(this.getDistance(x + direction.getDeltaX(), y + direction.getDeltaY()) == distance - 1) {
+                return direction;
+            }
+        }
+
+        return null;
+    }
+}
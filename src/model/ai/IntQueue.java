@@ -0,0 +1,48 @@
+package model.ai;
+
+import java.util.Arrays;
+
+/**
+ * Growable first-in first-out queue of cell indexes, without boxing them.
+ */
+class IntQueue {
+    private int[] values = new int[64];
+    private int head;
+    private int tail;
+
+    void add(int value) {
+        if(this.tail == this.values.length) {
+            /* Reuse the polled half of the array before growing it */
+            if(this.head >= this.values.length / 2) {
+                System.arraycopy(this.values, this.head, this.values, 0, this.tail - this.head);
+                this.tail -= this.head;
+                this.head = 0;
+            } else {
+                this.values = Arrays.copyOf(this.values, this.values.length * 2);
+            }
+        }
+
+        this.values[this.tail++] = value;
+    }
+
+    int poll() {
+        return this.values[this.head++];
+    }
+
+    int get(int index) {
+        return this.values[index];
+    }
+
+    int size() {
+        return this.tail;
+    }
+
+    boolean isEmpty() {
+        return this.head == this.tail;
+    }
+
+    void clear() {
+        this.head = 0;
+        this.tail = 0;
+    }
+}
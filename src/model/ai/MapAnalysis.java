@@ -0,0 +1,526 @@
+package model.ai;
+
+import model.entities.EntityDirection;
+import model.map.GameMap;
+
+import java.util.Arrays;
+
+/**
+ * Analysis of a whole {@link GameMap}: the connected components of the cells that are not walls and the distance (in
+ * moves) from every cell to the nearest {@link GameMap#END_CELL}, both kept on flat arrays indexed by cell. Whether a
+ * cell can reach the exit, how far it is and which move gets closer to it are constant-time lookups. When a cell
+ * changes, both are updated incrementally instead of analysing the whole map again.
+ */
+public class MapAnalysis {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    public static final int NO_COMPONENT = 0;
+    public static final int MAX_ANALYZED_CELLS = 1 << 24;
+    private static final EntityDirection[] DIRECTIONS = EntityDirection.values();
+    private static final int AFFECTED = -1;
+    private final int maxCellsX;
+    private final int maxCellsY;
+    private final int[] distances;
+    private final int[] components;
+    private int[] componentSizes;
+    private int nextComponent;
+
+    /**
+     * Constructor of a {@link MapAnalysis}, which analyses the whole {@link GameMap}.
+     * @param map {@link GameMap} to analyse, of at most {@link #MAX_ANALYZED_CELLS} cells.
+     */
+    public MapAnalysis(GameMap map) {
+        this.maxCellsX = map.getMaxCellsX();
+        this.maxCellsY = map.getMaxCellsY();
+        this.distances = new int[this.maxCellsX * this.maxCellsY];
+        this.components = new int[this.maxCellsX * this.maxCellsY];
+        this.componentSizes = new int[16];
+        this.nextComponent = NO_COMPONENT + 1;
+
+        this.labelComponents(map);
+        this.computeDistances(map);
+    }
+
+    /**
+     * Function to label every connected component of cells that are not walls with a flood from each unlabelled cell.
+     * @param map Analysed {@link GameMap}.
+     */
+    private void labelComponents(GameMap map) {
+        IntQueue queue = new IntQueue();
+
+        for(int index = 0; index < this.components.length; index++) {
+            if(this.components[index] == NO_COMPONENT && this.isOpen(map, index)) {
+                this.floodComponent(map, index, this.newComponent(), queue);
+            }
+        }
+    }
+
+    /**
+     * Function to compute the distances to the exit with a breadth-first flood from every {@link GameMap#END_CELL}
+     * at once.
+     * @param map Analysed {@link GameMap}.
+     */
+    private void computeDistances(GameMap map) {
+        IntQueue queue = new IntQueue();
+
+        Arrays.fill(this.distances, UNREACHABLE);
+
+        for(int index = 0; index < this.distances.length; index++) {
+            if(this.isExit(map, index)) {
+                this.distances[index] = 0;
+                queue.add(index);
+            }
+        }
+
+        this.relaxFrom(map, queue);
+    }
+
+    /**
+     * Function to update the analysis after a cell of the {@link GameMap} has changed. Only the components touching
+     * the cell and the distances that depend on it are computed again.
+     * @param map Analysed {@link GameMap}, already with the new cell.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @param oldCell Previous character (type of cell) of the cell.
+     * @param newCell New character (type of cell) of the cell.
+     */
+    public void update(GameMap map, int x, int y, char oldCell, char newCell) {
+        int index = y * this.maxCellsX + x;
+        boolean wasOpen = oldCell != GameMap.WALL_CELL;
+        boolean isOpen = newCell != GameMap.WALL_CELL;
+        boolean wasExit = oldCell == GameMap.END_CELL;
+        boolean isExit = newCell == GameMap.END_CELL;
+
+        if(!wasOpen && isOpen) {
+            this.joinComponents(map, index);
+        } else if(wasOpen && !isOpen) {
+            this.splitComponent(map, index);
+        }
+
+        if(wasOpen && (!isOpen || (wasExit && !isExit))) {
+            this.increaseDistances(map, index);
+        } else if(isOpen && (!wasOpen || (isExit && !wasExit))) {
+            this.distances[index] = isExit ? 0 : this.getShortestNeighbourDistance(map, index);
+
+            if(this.distances[index] != UNREACHABLE) {
+                IntQueue queue = new IntQueue();
+
+                queue.add(index);
+                this.relaxFrom(map, queue);
+            }
+        }
+    }
+
+    /**
+     * Function to add a cell that has just opened to the components around it, merging them into the biggest one.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the opened cell.
+     */
+    private void joinComponents(GameMap map, int index) {
+        int target = NO_COMPONENT;
+
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.components[neighbour] != NO_COMPONENT &&
+                    (target == NO_COMPONENT ||
+                            this.componentSizes[this.components[neighbour]] > this.componentSizes[target])) {
+                target = this.components[neighbour];
+            }
+        }
+
+        if(target == NO_COMPONENT) {
+            target = this.newComponent();
+        }
+
+        this.components[index] = target;
+        this.componentSizes[target]++;
+
+        /* Relabel the smaller components, so the cost is their size and not the size of the merged one */
+        IntQueue queue = new IntQueue();
+
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.components[neighbour] != NO_COMPONENT &&
+                    this.components[neighbour] != target) {
+                this.componentSizes[this.components[neighbour]] = 0;
+                this.floodComponent(map, neighbour, target, queue);
+            }
+        }
+    }
+
+    /**
+     * Function to remove a cell that has just closed from its component, splitting it if the cell was the only link
+     * between some of its neighbours. Every side but the last one reached is flooded with a new label.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the closed cell.
+     */
+    private void splitComponent(GameMap map, int index) {
+        int component = this.components[index];
+        int[] sides = new int[DIRECTIONS.length];
+        int sideCount = 0;
+
+        this.components[index] = NO_COMPONENT;
+        this.componentSizes[component]--;
+
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.components[neighbour] == component) {
+                sides[sideCount++] = neighbour;
+            }
+        }
+
+        IntQueue queue = new IntQueue();
+
+        for(int i = 0; i < sideCount - 1; i++) {
+            if(this.components[sides[i]] == component) {
+                int newComponent = this.newComponent();
+                int size = this.floodComponent(map, sides[i], newComponent, queue);
+
+                this.componentSizes[component] -= size;
+            }
+        }
+    }
+
+    /**
+     * Function to flood a component from a cell, labelling every reached cell that is not labelled yet with a label.
+     * @param map Analysed {@link GameMap}.
+     * @param start Index of the first cell.
+     * @param label Label of the component.
+     * @param queue Queue to use, empty.
+     * @return Number of labelled cells.
+     */
+    private int floodComponent(GameMap map, int start, int label, IntQueue queue) {
+        int previousLabel = this.components[start];
+        int size = 0;
+
+        this.components[start] = label;
+        queue.add(start);
+
+        while(!queue.isEmpty()) {
+            int index = queue.poll();
+
+            size++;
+
+            for(EntityDirection direction : DIRECTIONS) {
+                int neighbour = this.getNeighbour(index, direction);
+
+                if(neighbour >= 0 && this.components[neighbour] == previousLabel && this.isOpen(map, neighbour)) {
+                    this.components[neighbour] = label;
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        this.componentSizes[label] += size;
+        queue.clear();
+
+        return size;
+    }
+
+    /**
+     * Function to create a new component label.
+     * @return New label.
+     */
+    private int newComponent() {
+        if(this.nextComponent == this.componentSizes.length) {
+            this.componentSizes = Arrays.copyOf(this.componentSizes, this.componentSizes.length * 2);
+        }
+
+        this.componentSizes[this.nextComponent] = 0;
+
+        return this.nextComponent++;
+    }
+
+    /**
+     * Function to update the distances after a cell can no longer be part of a path to the exit (it has closed or it
+     * is no longer an exit). First, the cells that lose their only shortest path are found in order of distance:
+     * a cell is affected if every neighbour one move closer to the exit is affected. Then, their distances are
+     * computed again from the unaffected cells around them. The rest of the map is not touched.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the changed cell.
+     */
+    private void increaseDistances(GameMap map, int index) {
+        if(this.distances[index] == UNREACHABLE) {
+            return;
+        }
+
+        IntQueue affected = new IntQueue();
+        IntQueue oldDistances = new IntQueue();
+
+        affected.add(index);
+        oldDistances.add(this.distances[index]);
+        this.distances[index] = AFFECTED;
+
+        for(int i = 0; i < affected.size(); i++) {
+            int cell = affected.get(i);
+            int distance = oldDistances.get(i);
+
+            for(EntityDirection direction : DIRECTIONS) {
+                int neighbour = this.getNeighbour(cell, direction);
+
+                if(neighbour >= 0 && this.distances[neighbour] == distance + 1 && !this.isExit(map, neighbour) &&
+                        this.isOpen(map, neighbour) && !this.hasShortestPath(map, neighbour)) {
+                    affected.add(neighbour);
+                    oldDistances.add(this.distances[neighbour]);
+                    this.distances[neighbour] = AFFECTED;
+                }
+            }
+        }
+
+        /* Get the new distance of each affected cell from its unaffected neighbours */
+        long[] seeds = new long[affected.size()];
+        int seedCount = 0;
+
+        for(int i = 0; i < affected.size(); i++) {
+            int cell = affected.get(i);
+            int distance = this.isOpen(map, cell) ? this.getShortestNeighbourDistance(map, cell) : UNREACHABLE;
+
+            if(distance != UNREACHABLE) {
+                seeds[seedCount++] = ((long) distance << 32) | cell;
+            }
+        }
+
+        for(int i = 0; i < affected.size(); i++) {
+            this.distances[affected.get(i)] = UNREACHABLE;
+        }
+
+        /* Flood from the seeds in order of distance, merging them with the queue of the flood */
+        Arrays.sort(seeds, 0, seedCount);
+
+        LongQueue queue = new LongQueue();
+        int nextSeed = 0;
+
+        while(nextSeed < seedCount || !queue.isEmpty()) {
+            long entry = queue.isEmpty() || (nextSeed < seedCount && seeds[nextSeed] < queue.peek()) ?
+                    seeds[nextSeed++] : queue.poll();
+            int distance = (int) (entry >>> 32);
+            int cell = (int) entry;
+
+            if(distance >= this.distances[cell]) {
+                continue;
+            }
+
+            this.distances[cell] = distance;
+
+            for(EntityDirection direction : DIRECTIONS) {
+                int neighbour = this.getNeighbour(cell, direction);
+
+                if(neighbour >= 0 && this.distances[neighbour] > distance + 1 && this.isOpen(map, neighbour)) {
+                    queue.add(((long) (distance + 1) << 32) | neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function to check whether a cell still has an unaffected neighbour one move closer to the exit.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean hasShortestPath(GameMap map, int index) {
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.distances[neighbour] == this.distances[index] - 1 &&
+                    this.isOpen(map, neighbour)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Function to get the distance to the exit through the closest unaffected neighbour of a cell.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the cell.
+     * @return Distance or {@link #UNREACHABLE} if no neighbour reaches the exit.
+     */
+    private int getShortestNeighbourDistance(GameMap map, int index) {
+        if(this.isExit(map, index)) {
+            return 0;
+        }
+
+        int shortestDistance = UNREACHABLE;
+
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.distances[neighbour] != AFFECTED && this.distances[neighbour] != UNREACHABLE &&
+                    this.isOpen(map, neighbour)) {
+                shortestDistance = Math.min(shortestDistance, this.distances[neighbour] + 1);
+            }
+        }
+
+        return shortestDistance;
+    }
+
+    /**
+     * Function to lower the distances of the cells around the cells of a queue, flooding while they get shorter.
+     * @param map Analysed {@link GameMap}.
+     * @param queue Queue with the cells whose distances are already right, in order of distance.
+     */
+    private void relaxFrom(GameMap map, IntQueue queue) {
+        while(!queue.isEmpty()) {
+            int index = queue.poll();
+            int distance = this.distances[index] + 1;
+
+            for(EntityDirection direction : DIRECTIONS) {
+                int neighbour = this.getNeighbour(index, direction);
+
+                if(neighbour >= 0 && this.distances[neighbour] > distance && this.isOpen(map, neighbour)) {
+                    this.distances[neighbour] = distance;
+                    queue.add(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function to get the index of the neighbour of a cell.
+     * @param index Index of the cell.
+     * @param direction Direction of the neighbour.
+     * @return Index of the neighbour or -1 if it is outside the {@link GameMap}.
+     */
+    private int getNeighbour(int index, EntityDirection direction) {
+        int x = index % this.maxCellsX + direction.getDeltaX();
+        int y = index / this.maxCellsX + direction.getDeltaY();
+
+        return x >= 0 && y >= 0 && x < this.maxCellsX && y < this.maxCellsY ? y * this.maxCellsX + x : -1;
+    }
+
+    /**
+     * Function to check whether a cell is not a wall.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean isOpen(GameMap map, int index) {
+        return map.getCell(index % this.maxCellsX, index / this.maxCellsX) != GameMap.WALL_CELL;
+    }
+
+    /**
+     * Function to check whether a cell is an exit.
+     * @param map Analysed {@link GameMap}.
+     * @param index Index of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean isExit(GameMap map, int index) {
+        return map.getCell(index % this.maxCellsX, index / this.maxCellsX) == GameMap.END_CELL;
+    }
+
+    /**
+     * Function to get the distance from a cell to the nearest exit.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Number of moves to reach the exit or {@link #UNREACHABLE} if the cell is a wall or cannot reach it.
+     */
+    public int getDistanceToExit(int x, int y) {
+        return this.distances[y * this.maxCellsX + x];
+    }
+
+    /**
+     * Function to check whether the exit can be reached from a cell.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Result of the checkup.
+     */
+    public boolean isExitReachable(int x, int y) {
+        return this.getDistanceToExit(x, y) != UNREACHABLE;
+    }
+
+    /**
+     * Function to get the direction of the move that gets closer to the exit from a cell. Ties are broken by the order
+     * of {@link EntityDirection}, so the result is deterministic.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Direction of the next move or null if the cell is an exit or cannot reach it.
+     */
+    public EntityDirection getNextStepToExit(int x, int y) {
+        int index = y * this.maxCellsX + x;
+        int distance = this.distances[index];
+
+        if(distance == UNREACHABLE || distance == 0) {
+            return null;
+        }
+
+        for(EntityDirection direction : DIRECTIONS) {
+            int neighbour = this.getNeighbour(index, direction);
+
+            if(neighbour >= 0 && this.distances[neighbour] == distance - 1) {
+                return direction;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Function to get the connected component of a cell.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Label of the component or {@link #NO_COMPONENT} if the cell is a wall.
+     */
+    public int getComponent(int x, int y) {
+        return this.components[y * this.maxCellsX + x];
+    }
+
+    /**
+     * Function to check whether two cells are connected by cells that are not walls.
+     * @param fromX X-axis position of the first cell.
+     * @param fromY Y-axis position of the first cell.
+     * @param toX X-axis position of the second cell.
+     * @param toY Y-axis position of the second cell.
+     * @return Result of the checkup.
+     */
+    public boolean isConnected(int fromX, int fromY, int toX, int toY) {
+        int component = this.getComponent(fromX, fromY);
+
+        return component != NO_COMPONENT && component == this.getComponent(toX, toY);
+    }
+
+    /**
+     * Function to get the number of cells of a connected component.
+     * @param component Label of the component.
+     * @return Number of cells of the component.
+     */
+    public int getComponentSize(int component) {
+        return component > NO_COMPONENT && component < this.nextComponent ? this.componentSizes[component] : 0;
+    }
+
+    private static class LongQueue {
+        private long[] values = new long[64];
+        private int head;
+        private int tail;
+
+        void add(long value) {
+            if(this.tail == this.values.length) {
+                /* Reuse the polled half of the array before growing it */
+                if(this.head >= this.values.length / 2) {
+                    System.arraycopy(this.values, this.head, this.values, 0, this.tail - this.head);
+                    this.tail -= this.head;
+                    this.head = 0;
+                } else {
+                    this.values = Arrays.copyOf(this.values, this.values.length * 2);
+                }
+            }
+
+            this.values[this.tail++] = value;
+        }
+
+        long peek() {
+            return this.values[this.head];
+        }
+
+        long poll() {
+            return this.values[this.head++];
+        }
+
+        boolean isEmpty() {
+            return this.head == this.tail;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package model.ai;
+
+import model.entities.Entity;
+import model.entities.EntityDirection;
+
+/**
+ * Result of a {@link MapSolver}: the route with the least spikes damage from the start cell to an exit, if any.
+ */
+public class MapSolution {
+    private final boolean isSolvable;
+    private final int damage;
+    private final EntityDirection[] route;
+
+    /**
+     * Constructor of a {@link MapSolution}.
+     * @param isSolvable Whether the exit can be reached alive or not.
+     * @param damage Damage taken on the route.
+     * @param route Moves of the route or an empty array if there is none.
+     */
+    public MapSolution(boolean isSolvable, int damage, EntityDirection[] route) {
+        this.isSolvable = isSolvable;
+        this.damage = damage;
+        this.route = route;
+    }
+
+    /**
+     * Getter of whether the exit can be reached alive or not.
+     * @return Whether the map is solvable or not.
+     */
+    public boolean isSolvable() {
+        return isSolvable;
+    }
+
+    /**
+     * Getter of the damage taken on the route.
+     * @return Damage of the route.
+     */
+    public int getDamage() {
+        return damage;
+    }
+
+    /**
+     * Function to get the health left to the {@link model.entities.player.Player} at the exit.
+     * @return Health at the end of the route.
+     */
+    public int getHealth() {
+        return Entity.MAX_PLAYER_HEALTH - this.damage;
+    }
+
+    /**
+     * Getter of the moves of the route, from the start cell to the exit.
+     * @return Moves of the route.
+     */
+    public EntityDirection[] getRoute() {
+        return route;
+    }
+}
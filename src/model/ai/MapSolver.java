@@ -0,0 +1,169 @@
+package model.ai;
+
+import model.entities.Entity;
+import model.entities.EntityDirection;
+import model.map.GameMap;
+import model.map.MapPosition;
+
+import java.util.Arrays;
+
+/**
+ * Solver of a {@link GameMap} that finds the route from the start cell to an exit with the least spikes damage, as
+ * the {@link model.game.GameEngine} applies it: each move to a {@link GameMap#SPIKES_CELL} costs
+ * {@link GameMap#SPIKES_CELL_DAMAGE} and the player dies when the health reaches 0. The enemies are not simulated.
+ * <p>
+ * The search runs over (position, health) states, but the health never grows, so the state of a cell with the most
+ * health left dominates every other one and only the least damage of each cell is kept. Damages are small integers,
+ * so Dijkstra's algorithm runs with a bucket per damage (from 0 to {@link Entity#MAX_PLAYER_HEALTH} - 1) instead of a
+ * heap. As the damage of a move depends only on the cell it moves to, a cell gets its least damage the first time it
+ * is reached, and each cell is queued at most once.
+ * <p>
+ * A {@link MapSolver} keeps its arrays between maps, so it is not thread-safe: each thread uses its own.
+ */
+public class MapSolver {
+    private static final EntityDirection[] DIRECTIONS = EntityDirection.values();
+    private static final int UNVISITED = Integer.MAX_VALUE;
+    private static final byte NO_MOVE = -1;
+    private final IntQueue[] buckets;
+    private int[] damages;
+    private byte[] moves;
+
+    public MapSolver() {
+        this.buckets = new IntQueue[Entity.MAX_PLAYER_HEALTH];
+        this.damages = new int[0];
+        this.moves = new byte[0];
+
+        for(int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new IntQueue();
+        }
+    }
+
+    /**
+     * Function to find the route with the least damage from the start cell of a {@link GameMap} to an exit.
+     * @param map {@link GameMap} to solve, of at most {@link MapAnalysis#MAX_ANALYZED_CELLS} cells.
+     * @return {@link MapSolution} found or null if the map is too big to be solved.
+     */
+    public MapSolution solve(GameMap map) {
+        int maxCellsX = map.getMaxCellsX();
+        int maxCellsY = map.getMaxCellsY();
+
+        if((long) maxCellsX * maxCellsY > MapAnalysis.MAX_ANALYZED_CELLS) {
+            return null;
+        }
+
+        MapPosition start = map.getFirstPositionByCell(GameMap.START_PLAYER_CELL);
+
+        if(start == null) {
+            return new MapSolution(false, 0, new EntityDirection[0]);
+        }
+
+        this.prepare(maxCellsX * maxCellsY);
+
+        int startIndex = start.getY() * maxCellsX + start.getX();
+
+        this.damages[startIndex] = 0;
+        this.moves[startIndex] = NO_MOVE;
+
+        if(map.getCell(start.getX(), start.getY()) == GameMap.END_CELL) {
+            return new MapSolution(true, 0, new EntityDirection[0]);
+        }
+
+        this.buckets[0].add(startIndex);
+
+        for(int damage = 0; damage < this.buckets.length; damage++) {
+            IntQueue bucket = this.buckets[damage];
+
+            while(!bucket.isEmpty()) {
+                int index = bucket.poll();
+                int x = index % maxCellsX;
+                int y = index / maxCellsX;
+
+                for(EntityDirection direction : DIRECTIONS) {
+                    int nextX = x + direction.getDeltaX();
+                    int nextY = y + direction.getDeltaY();
+
+                    if(!map.isInside(nextX, nextY)) {
+                        continue;
+                    }
+
+                    int nextIndex = nextY * maxCellsX + nextX;
+                    char cell = map.getCell(nextX, nextY);
+
+                    if(this.damages[nextIndex] != UNVISITED || cell == GameMap.WALL_CELL) {
+                        continue;
+                    }
+
+                    int nextDamage = cell == GameMap.SPIKES_CELL ? damage + GameMap.SPIKES_CELL_DAMAGE : damage;
+
+                    /* The first time a cell is reached is with its least damage, even if the player dies there */
+                    this.damages[nextIndex] = nextDamage;
+                    this.moves[nextIndex] = (byte) direction.ordinal();
+
+                    if(nextDamage >= Entity.MAX_PLAYER_HEALTH) {
+                        continue;
+                    }
+
+                    if(cell == GameMap.END_CELL) {
+                        return new MapSolution(true, nextDamage, this.buildRoute(nextIndex, maxCellsX));
+                    }
+
+                    this.buckets[nextDamage].add(nextIndex);
+                }
+            }
+        }
+
+        return new MapSolution(false, 0, new EntityDirection[0]);
+    }
+
+    /**
+     * Function to get the arrays of the search ready for a map, growing them only if the map has more cells than
+     * any map solved before.
+     * @param cellCount Number of cells of the map.
+     */
+    private void prepare(int cellCount) {
+        if(this.damages.length < cellCount) {
+            this.damages = new int[cellCount];
+            this.moves = new byte[cellCount];
+        }
+
+        Arrays.fill(this.damages, 0, cellCount, UNVISITED);
+
+        for(IntQueue bucket : this.buckets) {
+            bucket.clear();
+        }
+    }
+
+    /**
+     * Function to follow the moves of the search back from an exit to the start cell.
+     * @param exitIndex Index of the exit cell.
+     * @param maxCellsX Number of cells on the X-axis of the map.
+     * @return Moves of the route, from the start cell to the exit.
+     */
+    private EntityDirection[] buildRoute(int exitIndex, int maxCellsX) {
+        int length = 0;
+
+        for(int index = exitIndex; this.moves[index] != NO_MOVE; length++) {
+            index = this.previousIndex(index, maxCellsX);
+        }
+
+        EntityDirection[] route = new EntityDirection[length];
+
+        for(int index = exitIndex; this.moves[index] != NO_MOVE; index = this.previousIndex(index, maxCellsX)) {
+            route[--length] = DIRECTIONS[this.moves[index]];
+        }
+
+        return route;
+    }
+
+    /**
+     * Function to get the cell a cell has been reached from on the search.
+     * @param index Index of the cell.
+     * @param maxCellsX Number of cells on the X-axis of the map.
+     * @return Index of the previous cell.
+     */
+    private int previousIndex(int index, int maxCellsX) {
+        EntityDirection direction = DIRECTIONS[this.moves[index]];
+
+        return index - direction.getDeltaY() * maxCellsX - direction.getDeltaX();
+    }
+}
@@ -0,0 +1,262 @@
+package model.dao;
+
+import model.map.CellCodec;
+import model.map.GameMap;
+import model.map.MappedCellStorage;
+import model.metrics.MapLoadEvent;
+import model.metrics.Metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary map format: a 16 bytes header (magic, version, encoding, 2 reserved bytes, width and height) followed by
+ * the cells. With {@link #RAW_ENCODING} each cell takes one byte with its {@link CellCodec} code, row by row. With
+ * {@link #RUN_LENGTH_ENCODING} the cells are stored as pairs of (run length, code), each run being at most 255 cells.
+ */
+public class BinaryMapDAO {
+    public static final int MAGIC = 0x44434D50;
+    public static final byte VERSION = 1;
+    public static final byte RAW_ENCODING = 0;
+    public static final byte RUN_LENGTH_ENCODING = 1;
+    public static final int HEADER_SIZE = 16;
+    private static final int MAX_RUN_LENGTH = 255;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int READ_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * Function to write a {@link GameMap} to a binary map file.
+     * @param path Path of the binary map file.
+     * @param map {@link GameMap} to write.
+     * @param isRunLengthEncoded Whether the cells are run-length encoded or stored raw.
+     * @return Whether the map has been written or not.
+     */
+    public boolean writeMap(String path, GameMap map, boolean isRunLengthEncoded) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+
+            buffer.putInt(MAGIC);
+            buffer.put(VERSION);
+            buffer.put(isRunLengthEncoded ? RUN_LENGTH_ENCODING : RAW_ENCODING);
+            buffer.putShort((short) 0);
+            buffer.putInt(map.getMaxCellsX());
+            buffer.putInt(map.getMaxCellsY());
+
+            byte runCode = CellCodec.INVALID_CODE;
+            int runLength = 0;
+
+            for(int i = 0; i < map.getMaxCellsY(); i++) {
+                for(int j = 0; j < map.getMaxCellsX(); j++) {
+                    byte code = CellCodec.encode(map.getCell(j, i));
+
+                    if(!isRunLengthEncoded) {
+                        BinaryMapDAO.flushIfFull(channel, buffer, 1);
+                        buffer.put(code);
+                    } else if(code == runCode && runLength < MAX_RUN_LENGTH) {
+                        runLength++;
+                    } else {
+                        if(runLength > 0) {
+                            BinaryMapDAO.flushIfFull(channel, buffer, 2);
+                            buffer.put((byte) runLength);
+                            buffer.put(runCode);
+                        }
+
+                        runCode = code;
+                        runLength = 1;
+                    }
+                }
+            }
+
+            if(runLength > 0) {
+                BinaryMapDAO.flushIfFull(channel, buffer, 2);
+                buffer.put((byte) runLength);
+                buffer.put(runCode);
+            }
+
+            BinaryMapDAO.flush(channel, buffer);
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot write the binary map file!");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Function to write the content of the buffer to the channel if there is not enough space left on it.
+     * @param channel Channel of the binary map file.
+     * @param buffer Buffer to write.
+     * @param requiredBytes Number of bytes that are going to be put on the buffer.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void flushIfFull(FileChannel channel, ByteBuffer buffer, int requiredBytes) throws IOException {
+        if(buffer.remaining() < requiredBytes) {
+            BinaryMapDAO.flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Function to write the content of the buffer to the channel.
+     * @param channel Channel of the binary map file.
+     * @param buffer Buffer to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+    /**
+     * Function to read a {@link GameMap} from a binary map file. Raw maps are served straight from the memory-mapped
+     * file, while run-length encoded maps are decoded to the heap.
+     * @param path Path of the binary map file.
+     * @return {@link GameMap} read or null if the file cannot be read.
+     */
+    public GameMap readMap(String path) {
+        long startTime = System.nanoTime();
+        MapLoadEvent event = new MapLoadEvent();
+
+        event.begin();
+
+        GameMap map = BinaryMapDAO.decodeMap(path);
+
+        event.path = path;
+        event.cells = map != null ? (long) map.getMaxCellsX() * map.getMaxCellsY() : 0;
+        event.commit();
+        Metrics.MAP_LOAD_TIME.record(System.nanoTime() - startTime);
+
+        return map;
+    }
+
+    /**
+     * Function to decode a {@link GameMap} from a binary map file.
+     * @param path Path of the binary map file.
+     * @return {@link GameMap} decoded or null if the file cannot be read.
+     */
+    private static GameMap decodeMap(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            /* The mapping stays valid after the channel is closed */
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                System.out.println("ERROR: The file is not a binary map file!");
+                return null;
+            }
+
+            if(buffer.get(4) != VERSION) {
+                System.out.println("ERROR: Unsupported version " + buffer.get(4) + " of the binary map file!");
+                return null;
+            }
+
+            byte encoding = buffer.get(5);
+            int maxCellsX = buffer.getInt(8);
+            int maxCellsY = buffer.getInt(12);
+
+            if(maxCellsX <= 0 || maxCellsY <= 0 || (long) maxCellsX * maxCellsY > Integer.MAX_VALUE) {
+                System.out.println("ERROR: Invalid size " + maxCellsX + "x" + maxCellsY + " of the binary map file!");
+                return null;
+            }
+
+            if(encoding == RAW_ENCODING) {
+                if((long) maxCellsX * maxCellsY > buffer.limit() - HEADER_SIZE) {
+                    System.out.println("ERROR: The binary map file is truncated!");
+                    return null;
+                }
+
+                if(!BinaryMapDAO.hasValidCodes(buffer, HEADER_SIZE, maxCellsX * maxCellsY)) {
+                    System.out.println("ERROR: Invalid cell on the binary map file!");
+                    return null;
+                }
+
+                return new GameMap(new MappedCellStorage(maxCellsX, maxCellsY, buffer, HEADER_SIZE));
+            }
+
+            if(encoding == RUN_LENGTH_ENCODING) {
+                byte[] cells = BinaryMapDAO.decodeRunLength(buffer, maxCellsX, maxCellsY);
+
+                return cells != null ? new GameMap(maxCellsX, maxCellsY, cells) : null;
+            }
+
+            System.out.println("ERROR: Unknown encoding " + encoding + " of the binary map file!");
+        } catch (NoSuchFileException exception) {
+            System.out.println("ERROR: Binary map file not found!");
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the content of the binary map file!");
+        } catch (IllegalArgumentException exception) {
+            /* Files of more than 2 GB cannot be mapped on a single buffer */
+            System.out.println("ERROR: The binary map file is too big to be loaded on memory!");
+        }
+
+        return null;
+    }
+
+    /**
+     * Function to check that every raw cell of a binary map file has a valid {@link CellCodec} code.
+     * @param buffer Buffer with the content of the binary map file.
+     * @param offset Position of the first cell on the buffer.
+     * @param cellCount Number of cells.
+     * @return Result of the checkup.
+     */
+    private static boolean hasValidCodes(ByteBuffer buffer, int offset, int cellCount) {
+        byte[] block = new byte[READ_BLOCK_SIZE];
+
+        for(int position = 0; position < cellCount; position += block.length) {
+            int blockLength = Math.min(block.length, cellCount - position);
+
+            /* Copy a whole block at once, which is much faster than reading the buffer byte by byte */
+            buffer.get(offset + position, block, 0, blockLength);
+
+            for(int i = 0; i < blockLength; i++) {
+                if(!CellCodec.isValidCode(block[i])) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Function to decode the run-length encoded cells of a binary map file.
+     * @param buffer Buffer with the content of the binary map file.
+     * @param maxCellsX Max number of cells on the X-axis.
+     * @param maxCellsY Max number of cells on the Y-axis.
+     * @return Codes of the {@link GameMap}'s terrain, row by row, or null if the cells are not valid.
+     */
+    private static byte[] decodeRunLength(ByteBuffer buffer, int maxCellsX, int maxCellsY) {
+        byte[] cells = new byte[maxCellsX * maxCellsY];
+        int index = 0;
+
+        for(int position = HEADER_SIZE; position + 1 < buffer.limit() && index < cells.length; position += 2) {
+            int runLength = Math.min(buffer.get(position) & 0xFF, cells.length - index);
+            byte code = buffer.get(position + 1);
+
+            if(!CellCodec.isValidCode(code)) {
+                System.out.println("ERROR: Invalid cell on the binary map file!");
+                return null;
+            }
+
+            Arrays.fill(cells, index, index + runLength, code);
+            index += runLength;
+        }
+
+        if(index < cells.length) {
+            System.out.println("ERROR: The binary map file is truncated!");
+            return null;
+        }
+
+        return cells;
+    }
+}
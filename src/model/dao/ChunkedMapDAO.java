@@ -0,0 +1,181 @@
+package model.dao;
+
+import model.map.ChunkedCellStorage;
+import model.map.GameMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of maps too big to be loaded on memory. Only the header of the map file is read up front; the cells are
+ * loaded by chunks on demand through a {@link ChunkedCellStorage}. Both text map files (as read by {@link MapDAO})
+ * and raw binary map files (as written by {@link BinaryMapDAO}) are supported.
+ */
+public class ChunkedMapDAO {
+    public static final int DEFAULT_MAX_CHUNKS = 1024;
+    private static final int MAX_HEADER_SIZE = 64;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * Function to open a map file keeping at most {@link #DEFAULT_MAX_CHUNKS} chunks on memory.
+     * @param path Path of the map file.
+     * @return {@link GameMap} backed by the chunks of the file or null if the file cannot be read.
+     */
+    public GameMap getMapFromFile(String path) {
+        return this.getMapFromFile(path, DEFAULT_MAX_CHUNKS);
+    }
+
+    /**
+     * Function to open a map file.
+     * @param path Path of the map file.
+     * @param maxChunks Max number of chunks kept on memory.
+     * @return {@link GameMap} backed by the chunks of the file or null if the file cannot be read.
+     */
+    public GameMap getMapFromFile(String path, int maxChunks) {
+        FileChannel channel = null;
+
+        try {
+            channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+
+            ByteBuffer header = ByteBuffer.allocate(MAX_HEADER_SIZE);
+
+            while(header.hasRemaining() && channel.read(header) > 0) {
+                /* Keep reading until the header buffer is full or the file ends */
+            }
+
+            header.flip();
+
+            ChunkedCellStorage storage = header.remaining() >= BinaryMapDAO.HEADER_SIZE &&
+                    header.getInt(0) == BinaryMapDAO.MAGIC ?
+                    ChunkedMapDAO.openBinaryMap(channel, header, maxChunks) :
+                    ChunkedMapDAO.openTextMap(channel, header, maxChunks);
+
+            if(storage != null) {
+                return new GameMap(storage);
+            }
+        } catch (NoSuchFileException exception) {
+            System.out.println("ERROR: Map file not found!");
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the content of the map file!");
+        }
+
+        ChunkedMapDAO.close(channel);
+
+        return null;
+    }
+
+    /**
+     * Function to create the storage of a binary map file, which has to be raw (run-length encoded cells cannot be
+     * located without decoding everything before them).
+     * @param channel Channel of the map file.
+     * @param header Beginning of the map file.
+     * @param maxChunks Max number of chunks kept on memory.
+     * @return Storage of the map or null if the header is not valid.
+     */
+    private static ChunkedCellStorage openBinaryMap(FileChannel channel, ByteBuffer header, int maxChunks)
+            throws IOException {
+        if(header.get(4) != BinaryMapDAO.VERSION) {
+            System.out.println("ERROR: Unsupported version " + header.get(4) + " of the binary map file!");
+            return null;
+        }
+
+        if(header.get(5) != BinaryMapDAO.RAW_ENCODING) {
+            System.out.println("ERROR: Only raw binary map files can be loaded by chunks!");
+            return null;
+        }
+
+        int maxCellsX = header.getInt(8);
+        int maxCellsY = header.getInt(12);
+
+        if((long) maxCellsX * maxCellsY > channel.size() - BinaryMapDAO.HEADER_SIZE) {
+            System.out.println("ERROR: The binary map file is truncated!");
+            return null;
+        }
+
+        return new ChunkedCellStorage(maxCellsX, maxCellsY, channel, BinaryMapDAO.HEADER_SIZE, maxCellsX, false,
+                maxChunks);
+    }
+
+    /**
+     * Function to create the storage of a text map file. Every row has to take the same bytes, ending with the same
+     * line break (LF or CRLF), which is detected from the first row.
+     * @param channel Channel of the map file.
+     * @param header Beginning of the map file.
+     * @param maxChunks Max number of chunks kept on memory.
+     * @return Storage of the map or null if the header is not valid.
+     */
+    private static ChunkedCellStorage openTextMap(FileChannel channel, ByteBuffer header, int maxChunks)
+            throws IOException {
+        int[] position = {0};
+        int maxCellsX = ChunkedMapDAO.parseHeaderLine(header, position);
+        int maxCellsY = ChunkedMapDAO.parseHeaderLine(header, position);
+
+        if(maxCellsX <= 0 || maxCellsY <= 0) {
+            System.out.println("ERROR: Cannot retrieve the number of cells!");
+            return null;
+        }
+
+        ByteBuffer lineBreak = ByteBuffer.allocate(1);
+        long dataOffset = position[0];
+
+        channel.read(lineBreak, dataOffset + maxCellsX);
+
+        long rowStride = maxCellsX + (lineBreak.position() == 1 && lineBreak.get(0) == CARRIAGE_RETURN ? 2 : 1);
+
+        if(dataOffset + (maxCellsY - 1) * rowStride + maxCellsX > channel.size()) {
+            System.out.println("ERROR: The map file ends before all the cells have been read!");
+            return null;
+        }
+
+        return new ChunkedCellStorage(maxCellsX, maxCellsY, channel, dataOffset, rowStride, true, maxChunks);
+    }
+
+    /**
+     * Function to parse a line of the header of a text map file containing a number of cells.
+     * @param header Beginning of the map file.
+     * @param position Position of the line on the header, moved past the line.
+     * @return Number of cells read or -1 if the line is not a valid number.
+     */
+    private static int parseHeaderLine(ByteBuffer header, int[] position) {
+        long cells = 0;
+        boolean hasDigits = false;
+
+        while(position[0] < header.limit()) {
+            byte character = header.get(position[0]++);
+
+            if(character == LINE_FEED) {
+                return hasDigits && cells <= Integer.MAX_VALUE ? (int) cells : -1;
+            }
+
+            if(character >= '0' && character <= '9') {
+                cells = Math.min(cells * 10 + (character - '0'), Integer.MAX_VALUE + 1L);
+                hasDigits = true;
+            } else if(character != CARRIAGE_RETURN && character != ' ') {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Function to close the channel of a map file that cannot be used.
+     * @param channel Channel of the map file or null if it was not opened.
+     */
+    private static void close(FileChannel channel) {
+        if(channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot close the map file!");
+        }
+    }
+}
@@ -2,6 +2,12 @@ package model.dao;
 
 public abstract class FilePath {
     public static final String MAP_FILE_PATH = "./resources/files/map.txt";
+    public static final String BINARY_MAP_FILE_PATH = "./resources/files/map.bin";
+    public static final String SNAPSHOT_FILE_PATH = "./resources/files/snapshot.bin";
+    public static final String INPUT_LOG_FILE_PATH = "./resources/files/input.log";
+    public static final String RESOURCES_DIRECTORY_PATH = "./resources";
+    public static final String MAPS_DIRECTORY_PATH = "./resources/files";
+    public static final String ASSETS_DIRECTORY_PATH = "./resources/assets";
     public static final String ASSET_PLAYER = "./resources/assets/player/down/0.png";
     public static final String ASSET_ENEMY_FLY = "./resources/assets/enemies/fly/0.png";
     public static final String ASSET_ENEMY_SPIDER = "./resources/assets/enemies/spider/0.png";
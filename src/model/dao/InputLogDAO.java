@@ -0,0 +1,196 @@
+package model.dao;
+
+import model.game.InputCommand;
+import model.game.InputLog;
+import model.map.CellCodec;
+import model.map.CellIndex;
+import model.map.GameMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of {@link InputCommand}s: a 24 bytes header (magic, version, 3 reserved bytes, width and height of
+ * the map and a fingerprint of its sparse cells) followed by records of 9 bytes (tick and command code). The records
+ * are buffered and appended in blocks, so recording never touches the disk on every command.
+ */
+public class InputLogDAO {
+    public static final int MAGIC = 0x4443494C;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int RECORD_SIZE = 9;
+    private static final int WRITE_BUFFER_SIZE = 4096;
+    private final String path;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+
+    public InputLogDAO(String path) {
+        this.path = path;
+        this.buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        this.channel = null;
+    }
+
+    /**
+     * Function to start a new log for a {@link GameMap}, replacing any previous one.
+     * @param map {@link GameMap} the commands are going to be applied on.
+     */
+    public void startRecording(GameMap map) {
+        this.close();
+
+        try {
+            this.channel = FileChannel.open(Paths.get(this.path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+
+            this.buffer.clear();
+            this.buffer.putInt(MAGIC);
+            this.buffer.put(VERSION);
+            this.buffer.put((byte) 0).putShort((short) 0);
+            this.buffer.putInt(map.getMaxCellsX());
+            this.buffer.putInt(map.getMaxCellsY());
+            this.buffer.putLong(InputLogDAO.getFingerprint(map));
+            this.flush();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot create the input log file!");
+            this.channel = null;
+        }
+    }
+
+    /**
+     * Function to record a command. It is buffered until the buffer is full or {@link #flush()} is called.
+     * @param tick Tick of the command.
+     * @param command {@link InputCommand} to record.
+     */
+    public void record(long tick, InputCommand command) {
+        if(this.channel == null) {
+            return;
+        }
+
+        if(this.buffer.remaining() < RECORD_SIZE) {
+            this.flush();
+        }
+
+        this.buffer.putLong(tick);
+        this.buffer.put((byte) command.ordinal());
+    }
+
+    /**
+     * Function to append the buffered commands to the log.
+     */
+    public void flush() {
+        if(this.channel == null) {
+            return;
+        }
+
+        this.buffer.flip();
+
+        try {
+            while(this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot write the input log file!");
+        }
+
+        this.buffer.clear();
+    }
+
+    /**
+     * Function to append the buffered commands and stop recording.
+     */
+    public void close() {
+        if(this.channel == null) {
+            return;
+        }
+
+        this.flush();
+
+        try {
+            this.channel.close();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot close the input log file!");
+        }
+
+        this.channel = null;
+    }
+
+    /**
+     * Function to read a whole log. A record torn at the end of the file is ignored.
+     * @param map {@link GameMap} the commands are going to be replayed on, which has to be the recorded one.
+     * @return {@link InputLog} read or null if the file cannot be read or belongs to another map.
+     */
+    public InputLog read(GameMap map) {
+        ByteBuffer content;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(this.path), StandardOpenOption.READ)) {
+            content = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException exception) {
+            System.out.println("ERROR: Input log file not found!");
+            return null;
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the content of the input log file!");
+            return null;
+        }
+
+        if(content.limit() < HEADER_SIZE || content.getInt(0) != MAGIC || content.get(4) != VERSION) {
+            System.out.println("ERROR: The file is not an input log file!");
+            return null;
+        }
+
+        if(content.getInt(8) != map.getMaxCellsX() || content.getInt(12) != map.getMaxCellsY() ||
+                content.getLong(16) != InputLogDAO.getFingerprint(map)) {
+            System.out.println("ERROR: The input log was not recorded on the current map!");
+            return null;
+        }
+
+        int count = (content.limit() - HEADER_SIZE) / RECORD_SIZE;
+        long[] ticks = new long[count];
+        InputCommand[] commands = new InputCommand[count];
+
+        for(int i = 0; i < count; i++) {
+            int position = HEADER_SIZE + i * RECORD_SIZE;
+
+            ticks[i] = content.getLong(position);
+            commands[i] = InputCommand.fromCode(content.get(position + 8));
+
+            if(commands[i] == null) {
+                System.out.println("ERROR: Invalid command on record " + (i + 1) + " of the input log file!");
+                return new InputLog(Arrays.copyOf(ticks, i), Arrays.copyOf(commands, i));
+            }
+        }
+
+        return new InputLog(ticks, commands);
+    }
+
+    /**
+     * Function to get a fingerprint of a {@link GameMap} from its sparse cells (CRC32 of their types and positions),
+     * which is cheap to compute even for maps loaded on demand.
+     * @param map {@link GameMap} to fingerprint.
+     * @return Fingerprint of the {@link GameMap}.
+     */
+    private static long getFingerprint(GameMap map) {
+        CRC32 crc = new CRC32();
+        ByteBuffer position = ByteBuffer.allocate(8);
+
+        for(int i = 0; i < CellCodec.getCellTypesCount(); i++) {
+            char cell = CellCodec.decode((byte) i);
+
+            if(!CellIndex.isIndexedCell(cell)) {
+                continue;
+            }
+
+            for(int j = 0; j < map.getCellCount(cell); j++) {
+                crc.update(position.clear().putLong(map.getCellPosition(cell, j)).flip());
+            }
+
+            crc.update(i);
+        }
+
+        return crc.getValue();
+    }
+}
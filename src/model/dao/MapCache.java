@@ -0,0 +1,159 @@
+package model.dao;
+
+import model.ai.MapAnalysis;
+import model.map.GameMap;
+import model.map.MapPosition;
+import model.map.MapReload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide cache of the map files. Each file (text or binary) is loaded once and its {@link GameMap} is kept
+ * private, so nothing ever changes it. Every game gets a copy-on-write {@link GameMap} over the cached one
+ * (see {@link GameMap#createOverlay()}), which costs memory only for the cells that the game changes.
+ */
+public abstract class MapCache {
+    private static final int MAX_HEAP_FRACTION = 4;
+    private static final Map<Path, GameMap> MAPS = new ConcurrentHashMap<>();
+
+    /**
+     * Function to get a {@link GameMap} of a map file for a new game, loading the file the first time it is asked
+     * for. Concurrent requests of the same file wait for a single load.
+     * @param path Path of the map file.
+     * @return Copy-on-write {@link GameMap} over the cached one or null if the file cannot be loaded.
+     */
+    public static GameMap getMap(String path) {
+        GameMap map = MAPS.computeIfAbsent(Paths.get(path).toAbsolutePath().normalize(), MapCache::loadMap);
+
+        return map != null ? map.createOverlay() : null;
+    }
+
+    /**
+     * Function to load again a cached map file that has changed. If the new version cannot be loaded (e.g. it is
+     * still being written), the cached version is kept. The games already running keep their maps until the
+     * {@link MapReload} is applied to them, while new games get the new version straight away.
+     * @param path Path of the map file.
+     * @return {@link MapReload} with the new version or null if the file is not cached or cannot be loaded.
+     */
+    public static MapReload reload(String path) {
+        Path key = Paths.get(path).toAbsolutePath().normalize();
+        GameMap oldMap = MAPS.get(key);
+
+        if(oldMap == null) {
+            return null;
+        }
+
+        GameMap newMap = MapCache.loadMap(key);
+
+        if(newMap == null) {
+            return null;
+        }
+
+        MAPS.put(key, newMap);
+
+        return new MapReload(newMap.createOverlay(), GameMap.findChangedCells(oldMap, newMap));
+    }
+
+    /**
+     * Function to check whether a map file is on the cache.
+     * @param path Path of the map file.
+     * @return Result of the checkup.
+     */
+    public static boolean isCached(String path) {
+        return MAPS.containsKey(Paths.get(path).toAbsolutePath().normalize());
+    }
+
+    /**
+     * Function to load a map file for the cache and analyse it.
+     * @param path Path of the map file.
+     * @return {@link GameMap} loaded or null (which is not cached) if the file cannot be loaded.
+     */
+    private static GameMap loadMap(Path path) {
+        GameMap map = MapCache.readMap(path);
+
+        if(map == null) {
+            return null;
+        }
+
+        /* Analyse the map once on load, so that every game shares the analysis until it changes a cell */
+        MapAnalysis analysis = map.getAnalysis();
+        MapPosition start = map.getFirstPositionByCell(GameMap.START_PLAYER_CELL);
+
+        if(analysis != null && start != null && !analysis.isExitReachable(start.getX(), start.getY())) {
+            System.out.println("ERROR: The end cell of the map " + path + " cannot be reached from the start cell!");
+        }
+
+        return map;
+    }
+
+    /**
+     * Function to read a map file without caching it, telling binary map files apart from text map files by their
+     * first bytes. Files too big to be loaded on memory are opened by chunks with {@link ChunkedMapDAO}.
+     * @param path Path of the map file.
+     * @return {@link GameMap} read or null if the file cannot be loaded.
+     */
+    static GameMap readMap(Path path) {
+        GameMap map;
+
+        if(MapCache.isOversized(path)) {
+            map = new ChunkedMapDAO().getMapFromFile(path.toString());
+        } else if(MapCache.isBinaryMap(path)) {
+            map = new BinaryMapDAO().readMap(path.toString());
+        } else {
+            map = new MapDAO(path.toString()).getMapFromFile();
+        }
+
+        if(map == null || map.getMaxCellsX() == 0 || map.getMaxCellsY() == 0) {
+            System.out.println("ERROR: Cannot load the map " + path + "!");
+            return null;
+        }
+
+        return map;
+    }
+
+    /**
+     * Function to check whether a map file is too big to be loaded on memory, either because it does not fit on an
+     * array or because it would take more than a quarter of the heap.
+     * @param path Path of the map file.
+     * @return Result of the checkup.
+     */
+    private static boolean isOversized(Path path) {
+        long maxSize = Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / MAX_HEAP_FRACTION);
+
+        try {
+            return Files.size(path) > maxSize;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Function to check whether a file starts with the magic number of {@link BinaryMapDAO}.
+     * @param path Path of the map file.
+     * @return Result of the checkup.
+     */
+    static boolean isBinaryMap(Path path) {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] magic = inputStream.readNBytes(Integer.BYTES);
+
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == BinaryMapDAO.MAGIC;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Function to get the number of map files on the cache.
+     * @return Number of cached maps.
+     */
+    public static int getCachedMaps() {
+        return MAPS.size();
+    }
+}
@@ -0,0 +1,32 @@
+package model.dao;
+
+import model.map.GameMap;
+
+public class MapConverter {
+    private static final String RUN_LENGTH_OPTION = "--rle";
+
+    /**
+     * Function to convert a text map file (as read by {@link MapDAO}) to the binary map format of
+     * {@link BinaryMapDAO}.
+     * Usage: MapConverter [text map file] [binary map file] [--rle]
+     * @param args Paths of the text and binary map files and whether to use run-length encoding.
+     */
+    public static void main(String[] args) {
+        String textMapPath = args.length > 0 ? args[0] : FilePath.MAP_FILE_PATH;
+        String binaryMapPath = args.length > 1 ? args[1] : FilePath.BINARY_MAP_FILE_PATH;
+        boolean isRunLengthEncoded = args.length > 2 && args[2].equals(RUN_LENGTH_OPTION);
+
+        GameMap map = new MapDAO(textMapPath).getMapFromFile();
+
+        if(map == null) {
+            return;
+        }
+
+        if(!new BinaryMapDAO().writeMap(binaryMapPath, map, isRunLengthEncoded)) {
+            return;
+        }
+
+        System.out.println("Converted " + textMapPath + " to " + binaryMapPath + " (" + map.getMaxCellsX() + "x" +
+                map.getMaxCellsY() + ", " + (isRunLengthEncoded ? "run-length encoded" : "raw") + ")");
+    }
+}
@@ -1,80 +1,207 @@
 package model.dao;
 
+import model.map.CellCodec;
 import model.map.GameMap;
+import model.metrics.MapLoadEvent;
+import model.metrics.Metrics;
 
-import java.io.*;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 public class MapDAO {
-    private static final int FIRST_FILE_LINE = 0;
-    private static final int SECOND_FILE_LINE = 1;
-    private final int maxCellsX;
-    private final int maxCellsY;
+    private static final char LINE_FEED = '\n';
+    private static final char CARRIAGE_RETURN = '\r';
+    private static final int READ_BLOCK_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_INVALID_CELLS = 10;
+    private final String mapFilePath;
+    private int maxCellsX;
+    private int maxCellsY;
+    private byte[] cells;
+    private boolean isLoaded;
+    private int position;
+    private int line;
+    private int column;
 
     public MapDAO() {
-        this.maxCellsX = this.getFileContentForSpecifiedLine(FIRST_FILE_LINE);
-        this.maxCellsY = this.getFileContentForSpecifiedLine(SECOND_FILE_LINE);
+        this(FilePath.MAP_FILE_PATH);
+    }
+
+    public MapDAO(String mapFilePath) {
+        this.mapFilePath = mapFilePath;
+        this.maxCellsX = 0;
+        this.maxCellsY = 0;
+        this.cells = new byte[0];
+        this.isLoaded = false;
+
+        this.loadMap();
     }
 
     /**
-     * Function to get the content from a specific line of an external file.
-     * @param line Number of the line to read.
-     * @return Content of the line read.
+     * Function to read the whole map file once through a memory-mapped buffer and parse both the header and the
+     * {@link GameMap}'s terrain on a single pass.
      */
-    private int getFileContentForSpecifiedLine(int line) {
-        int cells = 0;
+    private void loadMap() {
+        long startTime = System.nanoTime();
+        MapLoadEvent event = new MapLoadEvent();
+
+        event.begin();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(this.mapFilePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            this.position = 0;
+            this.line = 1;
+            this.column = 1;
 
-        try {
-            String lineContent = Files.readAllLines(Paths.get(FilePath.MAP_FILE_PATH)).get(line);
-            cells = Integer.parseInt(lineContent);
+            this.maxCellsX = this.parseHeaderLine(buffer);
+            this.maxCellsY = this.parseHeaderLine(buffer);
+
+            if((long) this.maxCellsX * this.maxCellsY > Integer.MAX_VALUE) {
+                System.out.println("ERROR: The map is too big to be loaded on memory!");
+            } else if(this.maxCellsX > 0 && this.maxCellsY > 0) {
+                this.cells = this.parseCells(buffer);
+            }
+        } catch (NoSuchFileException exception) {
+            System.out.println("ERROR: Map file not found!");
         } catch (IOException exception) {
             System.out.println("ERROR: Cannot read the content of the map file!");
-        } catch (NumberFormatException exception) {
-            System.out.println("ERROR: Cannot retrieve the number of cells!");
+        } catch (IllegalArgumentException exception) {
+            /* Files of more than 2 GB cannot be mapped on a single buffer */
+            System.out.println("ERROR: The map file is too big to be loaded on memory!");
         }
 
-        return cells;
+        /* Leave no partial map behind, so that nothing can build a GameMap out of it */
+        if(!this.isLoaded) {
+            this.maxCellsX = 0;
+            this.maxCellsY = 0;
+            this.cells = new byte[0];
+        }
+
+        event.path = this.mapFilePath;
+        event.cells = this.cells.length;
+        event.commit();
+        Metrics.MAP_LOAD_TIME.record(System.nanoTime() - startTime);
     }
 
     /**
-     * Function to read the tiles of the {@link GameMap} on a 2D-array format.
-     * @return 2D-array containing the {@link GameMap}'s terrain.
+     * Function to parse a line of the header of the map file containing a number of cells.
+     * @param buffer Buffer with the content of the map file.
+     * @return Number of cells read or 0 if the line is not a valid number.
      */
-    public char[][] getMapFromFile() {
-        char[][] map = new char[this.maxCellsY][this.maxCellsX];
+    private int parseHeaderLine(MappedByteBuffer buffer) {
+        long cells = 0;
+        boolean hasDigits = false;
+        boolean isValid = true;
+
+        while(this.position < buffer.limit()) {
+            char character = (char) (buffer.get(this.position++) & 0xFF);
 
-        try {
-            File file = new File(FilePath.MAP_FILE_PATH);
-            FileReader fileReader = new FileReader(file);
-            BufferedReader bufferedReader = new BufferedReader(fileReader);
+            if(character == LINE_FEED) {
+                break;
+            }
 
-            int characterResult, indexX = 0, indexY = 0;
+            if(character >= '0' && character <= '9') {
+                /* Stop accumulating once the number is too big, so that long lines cannot overflow it */
+                cells = Math.min(cells * 10 + (character - '0'), Integer.MAX_VALUE + 1L);
+                hasDigits = true;
+            } else if(character != CARRIAGE_RETURN && character != ' ') {
+                isValid = false;
+            }
+        }
 
-            while((characterResult = bufferedReader.read()) != -1) {
-                char character = (char) characterResult;
+        this.line++;
+
+        if(!hasDigits || !isValid) {
+            System.out.println("ERROR: Cannot retrieve the number of cells!");
+            return 0;
+        }
+
+        if(cells > Integer.MAX_VALUE) {
+            System.out.println("ERROR: The number of cells of the map file is too big!");
+            return 0;
+        }
 
-                if(character == GameMap.START_PLAYER_CELL || character == GameMap.END_CELL ||
-                        character == GameMap.EMPTY_CELL || character == GameMap.WALL_CELL ||
-                        character == GameMap.SPIKES_CELL || character == GameMap.START_FLY_CELL ||
-                        character == GameMap.START_SPIDER_CELL) {
-                    map[indexY][indexX] = character;
+        return (int) cells;
+    }
 
-                    indexX++;
+    /**
+     * Function to parse the tiles of the {@link GameMap} into a flat array of {@link CellCodec} codes. Line breaks are
+     * skipped and any other unknown character is skipped. Only the first {@link #MAX_REPORTED_INVALID_CELLS} unknown
+     * characters are reported with their row and column, followed by the total of them, so that a corrupted map file
+     * does not flood the output.
+     * @param buffer Buffer with the content of the map file, positioned after the header.
+     * @return Codes of the {@link GameMap}'s terrain, row by row.
+     */
+    private byte[] parseCells(MappedByteBuffer buffer) {
+        byte[] cells = new byte[this.maxCellsX * this.maxCellsY];
+        int index = 0;
+        byte[] block = new byte[READ_BLOCK_SIZE];
+        int line = this.line, column = this.column;
+        long invalidCells = 0;
+
+        while(this.position < buffer.limit() && index < cells.length) {
+            int blockLength = Math.min(READ_BLOCK_SIZE, buffer.limit() - this.position);
+
+            /* Copy a whole block at once, which is much faster than reading the buffer byte by byte */
+            buffer.get(this.position, block, 0, blockLength);
+            this.position += blockLength;
+
+            for(int i = 0; i < blockLength && index < cells.length; i++) {
+                char character = (char) (block[i] & 0xFF);
+                byte code = CellCodec.encode(character);
+
+                if(code != CellCodec.INVALID_CODE) {
+                    cells[index++] = code;
+                } else if(character != LINE_FEED && character != CARRIAGE_RETURN &&
+                        ++invalidCells <= MAX_REPORTED_INVALID_CELLS) {
+                    System.out.println("ERROR: Invalid cell '" + character + "' on row " + line + ", column " +
+                            column + " of the map file!");
+                }
 
-                    if(indexX == this.maxCellsX) {
-                        indexY++;
-                        indexX = 0;
-                    }
+                if(character == LINE_FEED) {
+                    line++;
+                    column = 1;
+                } else {
+                    column++;
                 }
             }
-        } catch (FileNotFoundException exception) {
-            System.out.println("ERROR: Map file not found!");
-        } catch (IOException exception) {
-            System.out.println("ERROR: Cannot read the content of the map file!");
         }
 
-        return map;
+        this.line = line;
+        this.column = column;
+
+        if(invalidCells > MAX_REPORTED_INVALID_CELLS) {
+            System.out.println("ERROR: The map file has " + invalidCells + " invalid cells!");
+        }
+
+        this.isLoaded = index == cells.length;
+
+        if(index < cells.length) {
+            System.out.println("ERROR: The map file ends on row " + this.line + ", column " + this.column +
+                    " before all the cells have been read!");
+        }
+
+        return cells;
+    }
+
+    /**
+     * Function to get the {@link GameMap} read from the map file.
+     * @return {@link GameMap} backed by the flat array of cells read or null if the map file has not been loaded.
+     */
+    public GameMap getMapFromFile() {
+        return this.isLoaded ? new GameMap(this.maxCellsX, this.maxCellsY, this.cells) : null;
+    }
+
+    /**
+     * Getter of whether every cell of the map file has been read.
+     * @return Whether the map has been loaded completely or not.
+     */
+    public boolean isLoaded() {
+        return isLoaded;
     }
 
     /**
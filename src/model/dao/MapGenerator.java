@@ -0,0 +1,216 @@
+package model.dao;
+
+import model.map.GameMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Seeded generator of dungeon text map files. The map is written row by row and every cell is derived from a hash of
+ * the seed and its position, so only a single row is held in memory whatever the size of the map. The dungeon is a
+ * grid of rooms joined by corridors, and a winding path that is never blocked (no walls, spikes or spawns) goes from
+ * the start cell on the first row to the end cell on the last one.
+ * <p>
+ * {@link MapDAO} loads the whole file on memory, so it only reads maps whose file takes less than 2 GB. Bigger maps
+ * (e.g. 100000x100000 cells) can only be opened by chunks with {@link ChunkedMapDAO}.
+ */
+public class MapGenerator {
+    public static final int MIN_SIZE = 4;
+    private static final int ROOM_BLOCK_SIZE = 12;
+    private static final int MAX_PATH_DRIFT = 3;
+    private static final int FLY_PER_MILLE = 2;
+    private static final int SPIDER_PER_MILLE = 2;
+    private static final int SPIKES_PER_MILLE = 30;
+    private static final byte LINE_FEED = '\n';
+    private final long seed;
+
+    public MapGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Function to generate a map and stream it to a text map file.
+     * @param path Path of the map file.
+     * @param width Number of cells of each row (at least {@link #MIN_SIZE}).
+     * @param height Number of rows (at least {@link #MIN_SIZE}).
+     * @return Whether the map has been written or not.
+     */
+    public boolean generate(String path, int width, int height) {
+        if(width < MIN_SIZE || height < MIN_SIZE || width == Integer.MAX_VALUE) {
+            System.out.println("ERROR: The map must be at least " + MIN_SIZE + "x" + MIN_SIZE + " cells!");
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] row = new byte[width + 1];
+            int pathX = this.getPathStep(0, width);
+
+            MapGenerator.write(channel, (width + "\n" + height + "\n").getBytes());
+
+            for(int y = 0; y < height; y++) {
+                int previousPathX = pathX;
+
+                /* The path goes down from the previous row and then sideways to its column on this row */
+                if(y > 1 && y < height - 1) {
+                    pathX = Math.max(1, Math.min(width - 2, pathX + this.getPathStep(y, width)));
+                }
+
+                this.generateRow(row, width, height, y, Math.min(previousPathX, pathX),
+                        Math.max(previousPathX, pathX), pathX);
+                MapGenerator.write(channel, row);
+            }
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot write the map file!");
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Function to fill a row of the map.
+     * @param row Buffer of the row, with room for the line feed.
+     * @param width Number of cells of each row.
+     * @param height Number of rows.
+     * @param y Y-axis position of the row.
+     * @param pathFromX First column (inclusive) of the path on this row.
+     * @param pathToX Last column (inclusive) of the path on this row.
+     * @param pathX Column where the path leaves this row.
+     */
+    private void generateRow(byte[] row, int width, int height, int y, int pathFromX, int pathToX, int pathX) {
+        for(int x = 0; x < width; x++) {
+            char cell;
+
+            if(x == 0 || y == 0 || x == width - 1 || y == height - 1) {
+                cell = GameMap.WALL_CELL;
+            } else if(x >= pathFromX && x <= pathToX) {
+                cell = GameMap.EMPTY_CELL;
+            } else {
+                cell = this.generateCell(x, y);
+            }
+
+            row[x] = (byte) cell;
+        }
+
+        /* Place the start cell on the first row of the path and the end cell on the last one */
+        if(y == 1) {
+            row[pathX] = (byte) GameMap.START_PLAYER_CELL;
+        } else if(y == height - 2) {
+            row[pathX] = (byte) GameMap.END_CELL;
+        }
+
+        row[width] = LINE_FEED;
+    }
+
+    /**
+     * Function to generate a cell outside the path: a wall unless it is inside a room or on a corridor, in which
+     * case it may hold spikes or an enemy spawn.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Character of the cell.
+     */
+    private char generateCell(int x, int y) {
+        int blockX = (x - 1) / ROOM_BLOCK_SIZE;
+        int blockY = (y - 1) / ROOM_BLOCK_SIZE;
+        int localX = (x - 1) % ROOM_BLOCK_SIZE;
+        int localY = (y - 1) % ROOM_BLOCK_SIZE;
+        long room = this.hash(blockX, blockY, 0);
+
+        /* Each block holds a room of random bounds and may open corridors through its middle */
+        int left = 1 + (int) (room & 3);
+        int top = 1 + (int) ((room >>> 2) & 3);
+        int right = ROOM_BLOCK_SIZE - 2 - (int) ((room >>> 4) & 3);
+        int bottom = ROOM_BLOCK_SIZE - 2 - (int) ((room >>> 6) & 3);
+        boolean isInsideRoom = localX >= left && localX <= right && localY >= top && localY <= bottom;
+        boolean isOnCorridor = (localY == ROOM_BLOCK_SIZE / 2 && ((room >>> 8) & 1) == 1) ||
+                (localX == ROOM_BLOCK_SIZE / 2 && ((room >>> 9) & 1) == 1);
+
+        if(!isInsideRoom && !isOnCorridor) {
+            return GameMap.WALL_CELL;
+        }
+
+        int roll = (int) Long.remainderUnsigned(this.hash(x, y, 1), 1000);
+
+        if(roll < FLY_PER_MILLE) {
+            return GameMap.START_FLY_CELL;
+        } else if(roll < FLY_PER_MILLE + SPIDER_PER_MILLE) {
+            return GameMap.START_SPIDER_CELL;
+        } else if(roll < FLY_PER_MILLE + SPIDER_PER_MILLE + SPIKES_PER_MILLE) {
+            return GameMap.SPIKES_CELL;
+        }
+
+        return GameMap.EMPTY_CELL;
+    }
+
+    /**
+     * Function to get the random part of the path on a row: its starting column on the first row, or its sideways
+     * drift on the rest of the rows.
+     * @param y Y-axis position of the row.
+     * @param width Number of cells of each row.
+     * @return Starting column or drift of the path.
+     */
+    private int getPathStep(int y, int width) {
+        long value = this.hash(y, 0, 2);
+
+        if(y == 0) {
+            return 1 + (int) Long.remainderUnsigned(value, width - 2);
+        }
+
+        return (int) Long.remainderUnsigned(value, MAX_PATH_DRIFT * 2 + 1) - MAX_PATH_DRIFT;
+    }
+
+    /**
+     * Function to mix the seed with a position (splitmix64 finalizer), so that every cell can be generated on its
+     * own without keeping any state.
+     * @param a First coordinate.
+     * @param b Second coordinate.
+     * @param stream Number that separates the different uses of the hash.
+     * @return Random bits.
+     */
+    private long hash(long a, long b, long stream) {
+        long value = this.seed + a * 0x9E3779B97F4A7C15L + b * 0xC2B2AE3D27D4EB4FL + stream * 0x165667B19E3779F9L;
+
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Function to write some bytes to the map file.
+     * @param channel Channel of the map file.
+     * @param bytes Bytes to write.
+     */
+    private static void write(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Function to generate a map file from the command line.
+     * Usage: MapGenerator [map file] [width] [height] [seed]
+     * @param args Path of the map file, size of the map and seed of the generator.
+     */
+    public static void main(String[] args) {
+        if(args.length == 0) {
+            System.out.println("ERROR: Missing the path of the map file to generate!");
+            return;
+        }
+
+        String mapPath = args[0];
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 1024;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : width;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        if(new MapGenerator(seed).generate(mapPath, width, height)) {
+            System.out.println("Generated " + mapPath + " (" + width + "x" + height + ", seed " + seed + ")");
+        }
+    }
+}
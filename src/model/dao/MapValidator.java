@@ -0,0 +1,174 @@
+package model.dao;
+
+import model.ai.MapSolution;
+import model.ai.MapSolver;
+import model.map.GameMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Validator of batches of map files, which checks that the exit of each map can be reached alive from its start cell
+ * with a {@link MapSolver}. The maps are loaded and solved in parallel, each thread with its own {@link MapSolver},
+ * and none of them is kept on the {@link MapCache}, so the memory only holds the maps being validated.
+ */
+public class MapValidator {
+    private static final String TEXT_MAP_EXTENSION = ".txt";
+    private final int threads;
+    private final ThreadLocal<MapSolver> solvers;
+    private final AtomicInteger failedMaps;
+    private final AtomicLong validatedCells;
+
+    /**
+     * Constructor of a {@link MapValidator}.
+     * @param threads Number of maps validated at once.
+     */
+    public MapValidator(int threads) {
+        this.threads = threads;
+        this.solvers = ThreadLocal.withInitial(MapSolver::new);
+        this.failedMaps = new AtomicInteger(0);
+        this.validatedCells = new AtomicLong(0);
+    }
+
+    /**
+     * Function to validate map files, printing a line per map in the given order and a summary with the throughput.
+     * @param paths Paths of the map files.
+     * @return Number of maps that are not valid.
+     */
+    public int validate(List<Path> paths) {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+        List<Future<String>> results = new ArrayList<>(paths.size());
+        long start = System.nanoTime();
+
+        for(Path path : paths) {
+            results.add(executor.submit(() -> this.validateMap(path)));
+        }
+
+        try {
+            for(Future<String> result : results) {
+                System.out.println(result.get());
+            }
+        } catch (InterruptedException | ExecutionException exception) {
+            System.out.println("ERROR: The validation of the maps has been interrupted!");
+            return paths.size();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Validated %d maps (%d cells) on %d threads in %.3f s: %.1f maps/s, %.1f Mcells/s, " +
+                "%d not valid%n", paths.size(), this.validatedCells.get(), this.threads, seconds,
+                paths.size() / seconds, this.validatedCells.get() / seconds / 1e6, this.failedMaps.get());
+
+        return this.failedMaps.get();
+    }
+
+    /**
+     * Function to load and solve a single map file. Any error of the map is reported as a failure of that map, so it
+     * does not stop the validation of the others.
+     * @param path Path of the map file.
+     * @return Line with the result of the validation.
+     */
+    private String validateMap(Path path) {
+        try {
+            return this.solveMap(path);
+        } catch (RuntimeException exception) {
+            return this.fail(path, "cannot be validated (" + exception + ")");
+        }
+    }
+
+    /**
+     * Function to load and solve a single map file.
+     * @param path Path of the map file.
+     * @return Line with the result of the validation.
+     */
+    private String solveMap(Path path) {
+        GameMap map = MapCache.readMap(path);
+
+        if(map == null) {
+            return this.fail(path, "cannot be loaded");
+        }
+
+        this.validatedCells.addAndGet((long) map.getMaxCellsX() * map.getMaxCellsY());
+
+        if(map.getFirstPositionByCell(GameMap.START_PLAYER_CELL) == null) {
+            return this.fail(path, "has no start cell");
+        }
+
+        MapSolution solution = this.solvers.get().solve(map);
+
+        if(solution == null) {
+            return this.fail(path, "is too big to be solved");
+        }
+
+        if(!solution.isSolvable()) {
+            return this.fail(path, "has no exit that can be reached alive");
+        }
+
+        return "OK " + path + " (" + map.getMaxCellsX() + "x" + map.getMaxCellsY() + ", damage " +
+                solution.getDamage() + ", health " + solution.getHealth() + ", " + solution.getRoute().length +
+                " moves)";
+    }
+
+    /**
+     * Function to count a map that is not valid.
+     * @param path Path of the map file.
+     * @param reason Reason why the map is not valid.
+     * @return Line with the result of the validation.
+     */
+    private String fail(Path path, String reason) {
+        this.failedMaps.incrementAndGet();
+
+        return "FAIL " + path + " " + reason;
+    }
+
+    /**
+     * Function to check whether a file is a text or binary map file.
+     * @param path Path of the file.
+     * @return Result of the checkup.
+     */
+    private static boolean isMapFile(Path path) {
+        return path.getFileName().toString().endsWith(TEXT_MAP_EXTENSION) || MapCache.isBinaryMap(path);
+    }
+
+    /**
+     * Function to validate every map file of a directory (and its subdirectories) from the command line. Text map
+     * files are told by their ".txt" extension and binary map files by their magic number, any other file is skipped.
+     * Usage: MapValidator [directory] [threads]
+     * @param args Path of the directory and number of threads (one per core by default).
+     */
+    public static void main(String[] args) {
+        Path directory = Paths.get(args.length > 0 ? args[0] : FilePath.MAPS_DIRECTORY_PATH);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            threads = args.length > 1 ? Integer.parseInt(args[1]) : threads;
+        } catch (NumberFormatException exception) {
+            System.out.println("ERROR: Invalid number of threads " + args[1] + "!");
+            return;
+        }
+
+        List<Path> paths;
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            paths = files.filter(Files::isRegularFile).filter(MapValidator::isMapFile).sorted().toList();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the directory " + directory + "!");
+            return;
+        }
+
+        new MapValidator(Math.max(1, threads)).validate(paths);
+    }
+}
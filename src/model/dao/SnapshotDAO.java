@@ -0,0 +1,403 @@
+package model.dao;
+
+import model.game.GameSnapshot;
+import model.game.GameStatus;
+import model.map.CellCodec;
+import model.map.GameMap;
+import model.map.MapPosition;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Journal of {@link GameSnapshot}s: a 16 bytes header (magic, version, 3 reserved bytes, width and height of the
+ * map) followed by records. The first record is a full snapshot and the rest are incremental ones, which only store
+ * the blocks of {@link #ENEMY_BLOCK_SIZE} enemies and the map chunks that have changed since the previous record.
+ * Every record is prefixed by its length and CRC32, so a record torn by a crash is detected and ignored. After
+ * {@link #MAX_INCREMENTAL_SNAPSHOTS} incremental records the journal is rewritten from a new full snapshot.
+ */
+public class SnapshotDAO {
+    public static final int MAGIC = 0x44435348;
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int ENEMY_BLOCK_SIZE = 256;
+    public static final int MAX_INCREMENTAL_SNAPSHOTS = 64;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final byte FULL_RECORD = 0;
+    private static final byte INCREMENTAL_RECORD = 1;
+    private static final int CHUNK_BYTES = GameMap.CHUNK_SIZE * GameMap.CHUNK_SIZE;
+    private final Path path;
+    private final int maxCellsX;
+    private final int maxCellsY;
+    private long[] writtenEnemyPositions;
+    private long[] writtenEnemyAttackTicks;
+    private int incrementalSnapshots;
+    private volatile boolean isFullSnapshotNeeded;
+
+    public SnapshotDAO(String path, GameMap map) {
+        this.path = Paths.get(path);
+        this.maxCellsX = map.getMaxCellsX();
+        this.maxCellsY = map.getMaxCellsY();
+        this.writtenEnemyPositions = new long[0];
+        this.writtenEnemyAttackTicks = new long[0];
+        this.incrementalSnapshots = 0;
+        this.isFullSnapshotNeeded = true;
+    }
+
+    /**
+     * Function to check whether the next snapshot to write has to be full: on the first write, after too many
+     * incremental ones, after a failed write or after the game has been restored.
+     * @return Result of the checkup.
+     */
+    public boolean isFullSnapshotNeeded() {
+        return isFullSnapshotNeeded;
+    }
+
+    /**
+     * Function to make the next snapshot to write a full one (e.g. after the game has been restored, as the
+     * incremental records are relative to the last written snapshot).
+     */
+    public void requestFullSnapshot() {
+        this.isFullSnapshotNeeded = true;
+    }
+
+    /**
+     * Function to write a {@link GameSnapshot}. Full snapshots replace the journal atomically, while incremental
+     * ones are appended to it with only the enemies and chunks that have changed.
+     * @param snapshot {@link GameSnapshot} to write, which has to be full if {@link #isFullSnapshotNeeded()}.
+     */
+    public synchronized void write(GameSnapshot snapshot) {
+        boolean isFull = snapshot.isFull();
+
+        if(!isFull && (this.isFullSnapshotNeeded ||
+                snapshot.getEnemyCount() != this.writtenEnemyPositions.length)) {
+            System.out.println("ERROR: An incremental snapshot cannot be written without a full one before it!");
+            return;
+        }
+
+        boolean[] changedBlocks = this.findChangedBlocks(snapshot, isFull);
+        ByteBuffer record = SnapshotDAO.encodeRecord(snapshot, changedBlocks);
+
+        try {
+            if(isFull) {
+                Path temporaryPath = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+
+                try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    SnapshotDAO.writeFully(channel, this.encodeHeader());
+                    SnapshotDAO.writeFully(channel, record);
+                }
+
+                Files.move(temporaryPath, this.path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    SnapshotDAO.writeFully(channel, record);
+                }
+            }
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot write the snapshot file!");
+            this.isFullSnapshotNeeded = true;
+            return;
+        }
+
+        this.rememberEnemies(snapshot);
+        this.incrementalSnapshots = isFull ? 0 : this.incrementalSnapshots + 1;
+        this.isFullSnapshotNeeded = this.incrementalSnapshots >= MAX_INCREMENTAL_SNAPSHOTS;
+    }
+
+    /**
+     * Function to find the blocks of enemies that have changed since the last written snapshot.
+     * @param snapshot {@link GameSnapshot} to write.
+     * @param isFull Whether every block has to be written.
+     * @return Whether each block has changed or not.
+     */
+    private boolean[] findChangedBlocks(GameSnapshot snapshot, boolean isFull) {
+        int enemyCount = snapshot.getEnemyCount();
+        boolean[] changedBlocks = new boolean[(enemyCount + ENEMY_BLOCK_SIZE - 1) / ENEMY_BLOCK_SIZE];
+
+        for(int i = 0; i < enemyCount; i++) {
+            if(isFull || snapshot.getEnemyPosition(i) != this.writtenEnemyPositions[i] ||
+                    snapshot.getEnemyAttackTick(i) != this.writtenEnemyAttackTicks[i]) {
+                changedBlocks[i / ENEMY_BLOCK_SIZE] = true;
+
+                /* Skip the rest of the block */
+                i = (i / ENEMY_BLOCK_SIZE + 1) * ENEMY_BLOCK_SIZE - 1;
+            }
+        }
+
+        return changedBlocks;
+    }
+
+    /**
+     * Function to keep the enemies of the last written snapshot, which the next incremental one is compared with.
+     * @param snapshot Written {@link GameSnapshot}.
+     */
+    private void rememberEnemies(GameSnapshot snapshot) {
+        if(this.writtenEnemyPositions.length != snapshot.getEnemyCount()) {
+            this.writtenEnemyPositions = new long[snapshot.getEnemyCount()];
+            this.writtenEnemyAttackTicks = new long[snapshot.getEnemyCount()];
+        }
+
+        for(int i = 0; i < snapshot.getEnemyCount(); i++) {
+            this.writtenEnemyPositions[i] = snapshot.getEnemyPosition(i);
+            this.writtenEnemyAttackTicks[i] = snapshot.getEnemyAttackTick(i);
+        }
+    }
+
+    /**
+     * Function to encode the header of the journal.
+     * @return Buffer with the header, ready to be written.
+     */
+    private ByteBuffer encodeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(MAGIC);
+        header.put(VERSION);
+        header.put((byte) 0).putShort((short) 0);
+        header.putInt(this.maxCellsX);
+        header.putInt(this.maxCellsY);
+
+        return header.flip();
+    }
+
+    /**
+     * Function to encode a record of the journal: its length and CRC32, the kind of record, the state of the
+     * {@link model.entities.player.Player}, the changed blocks of enemies (index, then position and attack tick of
+     * each enemy) and the changed chunks (position, then the codes of their cells).
+     * @param snapshot {@link GameSnapshot} to encode.
+     * @param changedBlocks Whether each block of enemies has to be encoded or not.
+     * @return Buffer with the record, ready to be written.
+     */
+    private static ByteBuffer encodeRecord(GameSnapshot snapshot, boolean[] changedBlocks) {
+        int enemyCount = snapshot.getEnemyCount();
+        int blockCount = 0;
+        int blockEnemies = 0;
+
+        for(int i = 0; i < changedBlocks.length; i++) {
+            if(changedBlocks[i]) {
+                blockCount++;
+                blockEnemies += Math.min(ENEMY_BLOCK_SIZE, enemyCount - i * ENEMY_BLOCK_SIZE);
+            }
+        }
+
+        int payloadSize = 1 + 8 + 4 + 4 + 4 + 1 + 4 + 4 + blockCount * 4 + blockEnemies * 16 + 4 +
+                snapshot.getMapChunks().size() * (8 + CHUNK_BYTES);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadSize);
+
+        record.position(RECORD_HEADER_SIZE);
+        record.put(snapshot.isFull() ? FULL_RECORD : INCREMENTAL_RECORD);
+        record.putLong(snapshot.getTick());
+        record.putInt(snapshot.getPlayerX());
+        record.putInt(snapshot.getPlayerY());
+        record.putInt(snapshot.getPlayerHealth());
+        record.put((byte) snapshot.getStatus().ordinal());
+        record.putInt(enemyCount);
+        record.putInt(blockCount);
+
+        for(int i = 0; i < changedBlocks.length; i++) {
+            if(changedBlocks[i]) {
+                record.putInt(i);
+
+                for(int j = i * ENEMY_BLOCK_SIZE; j < Math.min(enemyCount, (i + 1) * ENEMY_BLOCK_SIZE); j++) {
+                    record.putLong(snapshot.getEnemyPosition(j));
+                    record.putLong(snapshot.getEnemyAttackTick(j));
+                }
+            }
+        }
+
+        record.putInt(snapshot.getMapChunks().size());
+
+        for(Map.Entry<Long, byte[]> chunk : snapshot.getMapChunks().entrySet()) {
+            record.putLong(chunk.getKey());
+            record.put(chunk.getValue());
+        }
+
+        CRC32 crc = new CRC32();
+
+        crc.update(record.array(), RECORD_HEADER_SIZE, payloadSize);
+        record.putInt(0, payloadSize);
+        record.putInt(4, (int) crc.getValue());
+
+        return record.flip();
+    }
+
+    /**
+     * Function to write the whole content of a buffer to a channel.
+     * @param channel Channel of the file.
+     * @param buffer Buffer to write.
+     * @throws IOException If the channel cannot be written.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Function to read the latest {@link GameSnapshot} of the journal, applying every valid incremental record on
+     * top of the full one. A torn or corrupted record ends the journal.
+     * @return Full {@link GameSnapshot} or null if there is no valid snapshot for the map.
+     */
+    public synchronized GameSnapshot read() {
+        ByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException exception) {
+            System.out.println("ERROR: Snapshot file not found!");
+            return null;
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the content of the snapshot file!");
+            return null;
+        }
+
+        if(buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            System.out.println("ERROR: The file is not a snapshot file!");
+            return null;
+        }
+
+        if(buffer.getInt(8) != this.maxCellsX || buffer.getInt(12) != this.maxCellsY) {
+            System.out.println("ERROR: The snapshot does not belong to the current map!");
+            return null;
+        }
+
+        buffer.position(HEADER_SIZE);
+
+        GameSnapshot snapshot = null;
+
+        while(buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int payloadSize = buffer.getInt();
+            int checksum = buffer.getInt();
+
+            if(payloadSize <= 0 || payloadSize > buffer.remaining()) {
+                break;
+            }
+
+            byte[] payload = new byte[payloadSize];
+            CRC32 crc = new CRC32();
+
+            buffer.get(payload);
+            crc.update(payload);
+
+            if((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            try {
+                GameSnapshot nextSnapshot = this.decodeRecord(ByteBuffer.wrap(payload), snapshot);
+
+                if(nextSnapshot == null) {
+                    break;
+                }
+
+                snapshot = nextSnapshot;
+            } catch (BufferUnderflowException | IndexOutOfBoundsException exception) {
+                break;
+            }
+        }
+
+        if(snapshot == null) {
+            System.out.println("ERROR: The snapshot file has no valid snapshot!");
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Function to decode a record of the journal on top of the previous snapshot.
+     * @param payload Payload of the record.
+     * @param previous Full {@link GameSnapshot} decoded so far or null if this is the first record.
+     * @return Full {@link GameSnapshot} after applying the record or null if the record cannot be applied (e.g. it
+     * has a negative number of enemies, a chunk outside the map or an invalid cell code).
+     */
+    private GameSnapshot decodeRecord(ByteBuffer payload, GameSnapshot previous) {
+        boolean isFull = payload.get() == FULL_RECORD;
+        long tick = payload.getLong();
+        int playerX = payload.getInt();
+        int playerY = payload.getInt();
+        int playerHealth = payload.getInt();
+        int status = payload.get();
+        int enemyCount = payload.getInt();
+
+        if((!isFull && (previous == null || previous.getEnemyCount() != enemyCount)) || enemyCount < 0 ||
+                status < 0 || status >= GameStatus.values().length) {
+            return null;
+        }
+
+        long[] enemyPositions = new long[enemyCount];
+        long[] enemyAttackTicks = new long[enemyCount];
+        Map<Long, byte[]> mapChunks = isFull ? new HashMap<>() : new HashMap<>(previous.getMapChunks());
+
+        for(int i = 0; !isFull && i < enemyCount; i++) {
+            enemyPositions[i] = previous.getEnemyPosition(i);
+            enemyAttackTicks[i] = previous.getEnemyAttackTick(i);
+        }
+
+        int blockCount = payload.getInt();
+
+        for(int i = 0; i < blockCount; i++) {
+            int block = payload.getInt();
+
+            for(int j = block * ENEMY_BLOCK_SIZE; j < Math.min(enemyCount, (block + 1) * ENEMY_BLOCK_SIZE); j++) {
+                enemyPositions[j] = payload.getLong();
+                enemyAttackTicks[j] = payload.getLong();
+            }
+        }
+
+        int chunkCount = payload.getInt();
+
+        for(int i = 0; i < chunkCount; i++) {
+            long chunk = payload.getLong();
+            byte[] codes = new byte[CHUNK_BYTES];
+
+            payload.get(codes);
+
+            if(!this.isValidChunk(chunk, codes)) {
+                return null;
+            }
+
+            mapChunks.put(chunk, codes);
+        }
+
+        return new GameSnapshot(true, tick, playerX, playerY, playerHealth, GameStatus.values()[status],
+                enemyPositions, enemyAttackTicks, mapChunks);
+    }
+
+    /**
+     * Function to check whether a chunk of a record belongs to the map and holds only valid cell codes, so that it can
+     * be written on the {@link GameMap} when the snapshot is restored.
+     * @param chunk Packed position of the chunk (see {@link MapPosition#pack(int, int)}).
+     * @param codes {@link CellCodec} codes of the cells of the chunk.
+     * @return Result of the checkup.
+     */
+    private boolean isValidChunk(long chunk, byte[] codes) {
+        int chunkX = MapPosition.unpackX(chunk);
+        int chunkY = MapPosition.unpackY(chunk);
+
+        if(chunkX < 0 || chunkY < 0 || (long) chunkX * GameMap.CHUNK_SIZE >= this.maxCellsX ||
+                (long) chunkY * GameMap.CHUNK_SIZE >= this.maxCellsY) {
+            return false;
+        }
+
+        for(byte code : codes) {
+            if(!CellCodec.isValidCode(code)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
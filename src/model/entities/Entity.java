@@ -5,9 +5,11 @@ import model.map.MapPosition;
 public abstract class Entity {
     public static final int MAX_PLAYER_HEALTH = 10;
     protected MapPosition position;
+    private PositionListener positionListener;
 
     public Entity(MapPosition position) {
         this.position = position;
+        this.positionListener = null;
     }
 
     /**
@@ -23,6 +25,20 @@ public abstract class Entity {
      * @param position {@link Entity}'s position on the {@link model.map.GameMap}.
      */
     public void setPosition(MapPosition position) {
+        MapPosition oldPosition = this.position;
+
         this.position = position;
+
+        if(this.positionListener != null) {
+            this.positionListener.positionChanged(oldPosition, position);
+        }
+    }
+
+    /**
+     * Setter of the {@link PositionListener} notified every time the {@link Entity}'s position changes.
+     * @param positionListener Instance of {@link PositionListener} or null to stop notifying.
+     */
+    public void setPositionListener(PositionListener positionListener) {
+        this.positionListener = positionListener;
     }
 }
\ No newline at end of file
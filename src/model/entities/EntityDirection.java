@@ -1,8 +1,32 @@
 package model.entities;
 
 public enum EntityDirection {
-    UP,
-    DOWN,
-    RIGHT,
-    LEFT
+    UP(0, -1),
+    DOWN(0, 1),
+    RIGHT(1, 0),
+    LEFT(-1, 0);
+
+    private final int deltaX;
+    private final int deltaY;
+
+    EntityDirection(int deltaX, int deltaY) {
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+    }
+
+    /**
+     * Getter of the change on the X-axis position when moving to the {@link EntityDirection}.
+     * @return Change on the X-axis position.
+     */
+    public int getDeltaX() {
+        return deltaX;
+    }
+
+    /**
+     * Getter of the change on the Y-axis position when moving to the {@link EntityDirection}.
+     * @return Change on the Y-axis position.
+     */
+    public int getDeltaY() {
+        return deltaY;
+    }
 }
@@ -0,0 +1,13 @@
+package model.entities;
+
+import model.map.MapPosition;
+
+public interface PositionListener {
+    /**
+     * Invoked when the position of an {@link Entity} changes.
+     *
+     * @param oldPosition the position the entity has left
+     * @param newPosition the position the entity has entered
+     */
+    void positionChanged(MapPosition oldPosition, MapPosition newPosition);
+}
@@ -0,0 +1,118 @@
+package model.entities.enemy;
+
+import model.ai.DistanceField;
+import model.entities.Entity;
+import model.entities.EntityDirection;
+import model.map.MapPosition;
+
+public abstract class Enemy extends Entity {
+    public static final int ATTACK_COOLDOWN_TICKS = 60;
+    private static final EntityDirection[] DIRECTIONS = EntityDirection.values();
+    private final int id;
+    private long nextAttackTick;
+
+    public Enemy(int id, MapPosition position) {
+        super(position);
+        this.id = id;
+        this.nextAttackTick = 0;
+    }
+
+    /**
+     * Getter of the {@link EnemyType} of the {@link Enemy}.
+     * @return {@link EnemyType} of the {@link Enemy}.
+     */
+    public abstract EnemyType getType();
+
+    /**
+     * Getter of the number of ticks between two moves of the {@link Enemy}.
+     * @return Number of ticks between two moves.
+     */
+    protected abstract int getMoveInterval();
+
+    /**
+     * Getter of the damage the {@link Enemy} causes to the {@link model.entities.player.Player} on each attack.
+     * @return Damage of an attack.
+     */
+    public abstract int getAttackDamage();
+
+    /**
+     * Function to choose the direction of the next move of the {@link Enemy}.
+     * @param distanceField {@link DistanceField} from the {@link model.entities.player.Player}, shared by all enemies.
+     * @param tick Current tick of the game.
+     * @return Direction of the next move or null to stay on the same cell.
+     */
+    public abstract EntityDirection chooseDirection(DistanceField distanceField, long tick);
+
+    /**
+     * Function to check whether the {@link Enemy} moves on a tick. The moves of the enemies are staggered by their
+     * id so that they do not all move on the same tick.
+     * @param tick Current tick of the game.
+     * @return Result of the checkup.
+     */
+    public boolean isMoveTick(long tick) {
+        return (tick + this.id) % this.getMoveInterval() == 0;
+    }
+
+    /**
+     * Function to attack the {@link model.entities.player.Player} if the attack is not on cooldown.
+     * @param tick Current tick of the game.
+     * @return Damage caused, 0 if the attack is on cooldown.
+     */
+    public int attack(long tick) {
+        if(tick < this.nextAttackTick) {
+            return 0;
+        }
+
+        this.nextAttackTick = tick + ATTACK_COOLDOWN_TICKS;
+
+        return this.getAttackDamage();
+    }
+
+    /**
+     * Getter of the first tick on which the {@link Enemy} can attack again.
+     * @return Tick when the attack cooldown ends.
+     */
+    public long getNextAttackTick() {
+        return nextAttackTick;
+    }
+
+    /**
+     * Setter of the first tick on which the {@link Enemy} can attack again (e.g. when a game is restored).
+     * @param nextAttackTick Tick when the attack cooldown ends.
+     */
+    public void setNextAttackTick(long nextAttackTick) {
+        this.nextAttackTick = nextAttackTick;
+    }
+
+    /**
+     * Function to get a pseudo-random direction that only depends on the id of the {@link Enemy} and the tick, so
+     * that games can be reproduced exactly.
+     * @param tick Current tick of the game.
+     * @return Pseudo-random direction.
+     */
+    protected EntityDirection getRandomDirection(long tick) {
+        return DIRECTIONS[(int) ((this.getRandom(tick) >>> 1) % DIRECTIONS.length)];
+    }
+
+    /**
+     * Function to get a pseudo-random number that only depends on the id of the {@link Enemy} and the tick.
+     * @param tick Current tick of the game.
+     * @return Pseudo-random number.
+     */
+    protected long getRandom(long tick) {
+        long value = tick * 0x9E3779B97F4A7C15L + this.id;
+
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Getter of the id of the {@link Enemy}.
+     * @return Id of the {@link Enemy}.
+     */
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,22 @@
+package model.entities.enemy;
+
+import model.map.GameMap;
+
+public enum EnemyType {
+    FLY(GameMap.START_FLY_CELL),
+    SPIDER(GameMap.START_SPIDER_CELL);
+
+    private final char spawnCell;
+
+    EnemyType(char spawnCell) {
+        this.spawnCell = spawnCell;
+    }
+
+    /**
+     * Getter of the cell of the {@link GameMap} where the enemies of the {@link EnemyType} are spawned.
+     * @return Character of the spawn cell.
+     */
+    public char getSpawnCell() {
+        return spawnCell;
+    }
+}
@@ -0,0 +1,49 @@
+package model.entities.enemy;
+
+import model.ai.DistanceField;
+import model.entities.EntityDirection;
+import model.map.MapPosition;
+
+public class Fly extends Enemy {
+    private static final int MOVE_INTERVAL = 20;
+    private static final int ATTACK_DAMAGE = 1;
+    private static final int WANDER_CHANCE = 4;
+
+    public Fly(int id, MapPosition position) {
+        super(id, position);
+    }
+
+    @Override
+    public EnemyType getType() {
+        return EnemyType.FLY;
+    }
+
+    @Override
+    protected int getMoveInterval() {
+        return MOVE_INTERVAL;
+    }
+
+    @Override
+    public int getAttackDamage() {
+        return ATTACK_DAMAGE;
+    }
+
+    /**
+     * Function to choose the direction of the next move of the {@link Fly}. Flies chase the
+     * {@link model.entities.player.Player} erratically: from time to time, or when the player is out of reach, they
+     * wander in a random direction.
+     * @param distanceField {@link DistanceField} from the {@link model.entities.player.Player}, shared by all enemies.
+     * @param tick Current tick of the game.
+     * @return Direction of the next move or null to stay on the same cell.
+     */
+    @Override
+    public EntityDirection chooseDirection(DistanceField distanceField, long tick) {
+        EntityDirection direction = distanceField.getNextStep(this.position.getX(), this.position.getY());
+
+        if(direction == null || this.getRandom(tick) % WANDER_CHANCE == 0) {
+            return this.getRandomDirection(tick + 1);
+        }
+
+        return direction;
+    }
+}
@@ -0,0 +1,41 @@
+package model.entities.enemy;
+
+import model.ai.DistanceField;
+import model.entities.EntityDirection;
+import model.map.MapPosition;
+
+public class Spider extends Enemy {
+    private static final int MOVE_INTERVAL = 30;
+    private static final int ATTACK_DAMAGE = 2;
+
+    public Spider(int id, MapPosition position) {
+        super(id, position);
+    }
+
+    @Override
+    public EnemyType getType() {
+        return EnemyType.SPIDER;
+    }
+
+    @Override
+    protected int getMoveInterval() {
+        return MOVE_INTERVAL;
+    }
+
+    @Override
+    public int getAttackDamage() {
+        return ATTACK_DAMAGE;
+    }
+
+    /**
+     * Function to choose the direction of the next move of the {@link Spider}. Spiders are slow, but they always
+     * follow the shortest path to the {@link model.entities.player.Player} and wait when it is out of reach.
+     * @param distanceField {@link DistanceField} from the {@link model.entities.player.Player}, shared by all enemies.
+     * @param tick Current tick of the game.
+     * @return Direction of the next move or null to stay on the same cell.
+     */
+    @Override
+    public EntityDirection chooseDirection(DistanceField distanceField, long tick) {
+        return distanceField.getNextStep(this.position.getX(), this.position.getY());
+    }
+}
@@ -0,0 +1,266 @@
+package model.game;
+
+import model.ai.DistanceField;
+import model.entities.EntityDirection;
+import model.entities.enemy.Enemy;
+import model.map.MapPosition;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scheduler that updates the enemies in three phases: every enemy chooses its move (in parallel when there are many
+ * of them), the moves into the same cell are resolved in favour of the lowest id (and never onto the cell of an
+ * enemy that stays), and the winning moves are applied.
+ * As the choices only read the {@link model.map.GameMap} and the {@link DistanceField}, the result is exactly the
+ * same whether the first phase runs on one thread or on many.
+ */
+public class EntityScheduler {
+    public static final int PARALLEL_THRESHOLD = 1024;
+    public static final int REGION_SIZE = 64;
+    private static final int TASK_SIZE = 256;
+    private static final long NO_MOVE = Long.MIN_VALUE;
+    private final GameEngine engine;
+    private final ForkJoinPool pool;
+    private int[] order;
+    private long[] targets;
+    private int[] regionStarts;
+    private long[] claimedCells;
+    private int[] claimedStamps;
+    private int stamp;
+
+    public EntityScheduler(GameEngine engine) {
+        this(engine, ForkJoinPool.commonPool());
+    }
+
+    public EntityScheduler(GameEngine engine, ForkJoinPool pool) {
+        this.engine = engine;
+        this.pool = pool;
+        this.order = new int[0];
+        this.targets = new long[0];
+        this.regionStarts = new int[0];
+        this.claimedCells = new long[0];
+        this.claimedStamps = new int[0];
+        this.stamp = 0;
+    }
+
+    /**
+     * Function to update the enemies whose turn it is.
+     * @param enemies Enemies to update, ordered by id.
+     * @param distanceField {@link DistanceField} from the {@link model.entities.player.Player}, already computed.
+     * @param tick Current tick of the game.
+     * @param isParallel Whether the moves can be chosen in parallel when there are enough enemies.
+     * @return Whether any enemy has moved or not.
+     */
+    public boolean update(List<Enemy> enemies, DistanceField distanceField, long tick, boolean isParallel) {
+        int count = enemies.size();
+
+        this.ensureCapacity(count);
+        this.sortByRegion(enemies);
+
+        /* Phase 1: every enemy chooses its move */
+        if(isParallel && count >= PARALLEL_THRESHOLD) {
+            this.pool.invoke(new ChooseMovesTask(enemies, distanceField, tick, 0, count));
+        } else {
+            this.chooseMoves(enemies, distanceField, tick, 0, count);
+        }
+
+        /* Phase 2 and 3: resolve the conflicts by id and apply the winning moves */
+        return this.applyMoves(enemies);
+    }
+
+    /**
+     * Function to grow the working arrays of the scheduler when there are more enemies.
+     * @param count Number of enemies.
+     */
+    private void ensureCapacity(int count) {
+        if(this.targets.length < count) {
+            this.order = new int[count];
+            this.targets = new long[count];
+
+            int tableSize = Integer.highestOneBit(Math.max(count, 1) * 2) * 2;
+
+            this.claimedCells = new long[tableSize];
+            this.claimedStamps = new int[tableSize];
+        }
+    }
+
+    /**
+     * Function to sort the enemies by the region of the map they are in (bands of {@link #REGION_SIZE} rows) with a
+     * counting sort, so that each task works on a compact area of the map.
+     * @param enemies Enemies to sort.
+     */
+    private void sortByRegion(List<Enemy> enemies) {
+        int regions = this.engine.getMap().getMaxCellsY() / REGION_SIZE + 1;
+
+        if(this.regionStarts.length < regions + 1) {
+            this.regionStarts = new int[regions + 1];
+        } else {
+            Arrays.fill(this.regionStarts, 0);
+        }
+
+        for(Enemy enemy : enemies) {
+            this.regionStarts[enemy.getPosition().getY() / REGION_SIZE + 1]++;
+        }
+
+        for(int i = 1; i <= regions; i++) {
+            this.regionStarts[i] += this.regionStarts[i - 1];
+        }
+
+        for(int i = 0; i < enemies.size(); i++) {
+            this.order[this.regionStarts[enemies.get(i).getPosition().getY() / REGION_SIZE]++] = i;
+        }
+    }
+
+    /**
+     * Function to choose the moves of a range of enemies (in region order). Each enemy writes only its own target.
+     * @param enemies Enemies to update.
+     * @param distanceField {@link DistanceField} from the {@link model.entities.player.Player}.
+     * @param tick Current tick of the game.
+     * @param from First position (inclusive) of the range on the region order.
+     * @param to Last position (exclusive) of the range on the region order.
+     */
+    private void chooseMoves(List<Enemy> enemies, DistanceField distanceField, long tick, int from, int to) {
+        for(int i = from; i < to; i++) {
+            int index = this.order[i];
+            Enemy enemy = enemies.get(index);
+            long target = NO_MOVE;
+
+            if(enemy.isMoveTick(tick)) {
+                EntityDirection direction = enemy.chooseDirection(distanceField, tick);
+                MapPosition position = enemy.getPosition();
+
+                if(direction != null && this.engine.canEntityMove(position.getX(), position.getY(), direction)) {
+                    target = MapPosition.pack(position.getX() + direction.getDeltaX(),
+                            position.getY() + direction.getDeltaY());
+                }
+            }
+
+            this.targets[index] = target;
+        }
+    }
+
+    /**
+     * Function to apply the chosen moves. A blocked enemy stays on its cell, which may block the enemies moving
+     * into it, so the claims are resolved again until no move is blocked. Each round turns at least one move into a
+     * stay, so it ends, and usually after a single round.
+     * @param enemies Enemies to update.
+     * @return Whether any enemy has moved or not.
+     */
+    private boolean applyMoves(List<Enemy> enemies) {
+        boolean haveMoved = false;
+
+        while(this.claimCells(enemies)) {
+            /* Resolve the claims again with the blocked enemies staying */
+        }
+
+        for(int i = 0; i < enemies.size(); i++) {
+            long target = this.targets[i];
+
+            if(target != NO_MOVE) {
+                enemies.get(i).setPosition(new MapPosition(MapPosition.unpackX(target), MapPosition.unpackY(target)));
+                haveMoved = true;
+            }
+        }
+
+        return haveMoved;
+    }
+
+    /**
+     * Function to run a round of claims: every enemy that stays claims its own cell, and then the moving enemies
+     * claim their targets in id order. An enemy whose target has already been claimed stays.
+     * @param enemies Enemies to update.
+     * @return Whether any move has been blocked on this round.
+     */
+    private boolean claimCells(List<Enemy> enemies) {
+        boolean isBlocked = false;
+
+        this.nextStamp();
+
+        for(int i = 0; i < enemies.size(); i++) {
+            if(this.targets[i] == NO_MOVE) {
+                this.claimCell(enemies.get(i).getPosition().pack());
+            }
+        }
+
+        for(int i = 0; i < enemies.size(); i++) {
+            if(this.targets[i] != NO_MOVE && !this.claimCell(this.targets[i])) {
+                this.targets[i] = NO_MOVE;
+                isBlocked = true;
+            }
+        }
+
+        return isBlocked;
+    }
+
+    /**
+     * Function to start a new round of claims, which invalidates every previous claim without clearing the table.
+     */
+    private void nextStamp() {
+        this.stamp++;
+
+        if(this.stamp == 0) {
+            Arrays.fill(this.claimedStamps, 0);
+            this.stamp = 1;
+        }
+    }
+
+    /**
+     * Function to claim a cell on the open-addressing table of the current round.
+     * @param cell Packed position of the cell.
+     * @return True if the cell was free, false if another enemy had already claimed it.
+     */
+    private boolean claimCell(long cell) {
+        int mask = this.claimedCells.length - 1;
+        int slot = Long.hashCode(cell * 0x9E3779B97F4A7C15L) & mask;
+
+        while(this.claimedStamps[slot] == this.stamp) {
+            if(this.claimedCells[slot] == cell) {
+                return false;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        this.claimedStamps[slot] = this.stamp;
+        this.claimedCells[slot] = cell;
+
+        return true;
+    }
+
+    private class ChooseMovesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Enemy> enemies;
+        private final DistanceField distanceField;
+        private final long tick;
+        private final int from;
+        private final int to;
+
+        ChooseMovesTask(List<Enemy> enemies, DistanceField distanceField, long tick, int from, int to) {
+            this.enemies = enemies;
+            this.distanceField = distanceField;
+            this.tick = tick;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Function to choose the moves of the range, splitting it in halves while it is too big for a single task.
+         */
+        @Override
+        protected void compute() {
+            if(this.to - this.from <= TASK_SIZE) {
+                EntityScheduler.this.chooseMoves(this.enemies, this.distanceField, this.tick, this.from, this.to);
+                return;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+
+            RecursiveAction.invokeAll(
+                    new ChooseMovesTask(this.enemies, this.distanceField, this.tick, this.from, middle),
+                    new ChooseMovesTask(this.enemies, this.distanceField, this.tick, middle, this.to));
+        }
+    }
+}
@@ -0,0 +1,448 @@
+package model.game;
+
+import model.ai.DistanceField;
+import model.entities.EntityDirection;
+import model.entities.enemy.Enemy;
+import model.entities.enemy.EnemyType;
+import model.entities.enemy.Fly;
+import model.entities.enemy.Spider;
+import model.entities.player.Player;
+import model.map.GameMap;
+import model.map.MapPosition;
+import model.map.MapReload;
+import model.map.OccupancyGrid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GameEngine {
+    public static final int CHASE_RADIUS = 24;
+    public static final int PREFETCH_RADIUS = CHASE_RADIUS * 2;
+    private final GameMap map;
+    private final List<Enemy> enemies;
+    private final OccupancyGrid occupancyGrid;
+    private final DistanceField distanceField;
+    private final EntityScheduler entityScheduler;
+    private final boolean isParallel;
+    private GameState syncedState;
+
+    public GameEngine(GameMap map) {
+        this(map, true);
+    }
+
+    /**
+     * Constructor of a {@link GameEngine}.
+     * @param map {@link GameMap} to simulate.
+     * @param isParallel Whether the enemies can be updated in parallel (batch runs that already run many engines at
+     *                   once should disable it).
+     */
+    public GameEngine(GameMap map, boolean isParallel) {
+        this.map = map;
+        this.enemies = new ArrayList<>();
+        this.occupancyGrid = new OccupancyGrid();
+        this.distanceField = new DistanceField(CHASE_RADIUS);
+        this.entityScheduler = new EntityScheduler(this);
+        this.isParallel = isParallel;
+    }
+
+    /**
+     * Function to create the {@link GameState} of a new game, with the {@link Player} on the
+     * {@link GameMap#START_PLAYER_CELL} and full health, and the enemies on their spawn cells.
+     * @return Initial {@link GameState}.
+     */
+    public GameState newGame() {
+        Player player = new Player(this.map.getFirstPositionByCell(GameMap.START_PLAYER_CELL));
+
+        this.spawnEnemies();
+        this.distanceField.invalidate();
+
+        this.syncedState = new GameState(0, player.getPosition().getX(), player.getPosition().getY(),
+                player.getHealth(), GameStatus.PLAYING, 0, this.getEnemyPositions(), this.getEnemyAttackTicks(),
+                this.getEnemyTypes());
+
+        return this.syncedState;
+    }
+
+    /**
+     * Function to create an {@link Enemy} on every spawn cell of the {@link GameMap} and track it on the
+     * {@link OccupancyGrid}, using its index on the list of enemies as its id.
+     */
+    private void spawnEnemies() {
+        this.enemies.clear();
+        this.occupancyGrid.clear();
+
+        for(EnemyType type : EnemyType.values()) {
+            for(int i = 0; i < this.map.getCellCount(type.getSpawnCell()); i++) {
+                long position = this.map.getCellPosition(type.getSpawnCell(), i);
+                MapPosition spawnPosition = new MapPosition(MapPosition.unpackX(position),
+                        MapPosition.unpackY(position));
+
+                Enemy enemy = switch (type) {
+                    case FLY -> new Fly(this.enemies.size(), spawnPosition);
+                    case SPIDER -> new Spider(this.enemies.size(), spawnPosition);
+                };
+
+                this.occupancyGrid.add(enemy.getId(), enemy);
+                this.enemies.add(enemy);
+            }
+        }
+    }
+
+    /**
+     * Function to move the enemies to the positions and cooldowns of a {@link GameState}, unless it is the last one
+     * produced by the {@link GameEngine} (which already matches them). Stepping from an older {@link GameState}, or
+     * from one of another {@link GameEngine} on the same map, then gives the same result as stepping from it right
+     * after it was produced.
+     * @param state {@link GameState} to simulate from.
+     */
+    private void syncEnemies(GameState state) {
+        if(state == this.syncedState) {
+            return;
+        }
+
+        if(state.getEnemyCount() != this.enemies.size()) {
+            this.spawnEnemies();
+        }
+
+        long[] enemyPositions = state.getEnemyPositions();
+        long[] enemyAttackTicks = state.getEnemyAttackTicks();
+
+        for(int i = 0; i < this.enemies.size(); i++) {
+            Enemy enemy = this.enemies.get(i);
+
+            if(enemy.getPosition().pack() != enemyPositions[i]) {
+                enemy.setPosition(new MapPosition(MapPosition.unpackX(enemyPositions[i]),
+                        MapPosition.unpackY(enemyPositions[i])));
+            }
+
+            enemy.setNextAttackTick(enemyAttackTicks[i]);
+        }
+
+        this.syncedState = state;
+    }
+
+    /**
+     * Function to capture everything needed to restore the game at a {@link GameState}. The positions and attack
+     * cooldowns of the enemies are shared with the {@link GameState}, so only the changed chunks are copied.
+     * @param state Current {@link GameState}.
+     * @param isFull Whether to capture every chunk of the {@link GameMap} modified since it was loaded, or only those
+     *               modified since the previous snapshot.
+     * @return New {@link GameSnapshot}.
+     */
+    public GameSnapshot createSnapshot(GameState state, boolean isFull) {
+        Set<Long> dirtyChunks = this.map.drainDirtyChunks();
+        Map<Long, byte[]> mapChunks = new HashMap<>();
+
+        for(long chunk : isFull ? this.map.getModifiedChunks() : dirtyChunks) {
+            mapChunks.put(chunk, this.map.copyChunk(MapPosition.unpackX(chunk), MapPosition.unpackY(chunk)));
+        }
+
+        return new GameSnapshot(isFull, state.getTick(), state.getPlayerX(), state.getPlayerY(),
+                state.getPlayerHealth(), state.getStatus(), state.getEnemyPositions(), state.getEnemyAttackTicks(),
+                mapChunks);
+    }
+
+    /**
+     * Function to restore a game from a full {@link GameSnapshot}: the {@link GameMap} gets back the chunks of the
+     * snapshot (any other modified chunk is reverted) and the enemies their positions and attack cooldowns.
+     * @param snapshot Full {@link GameSnapshot} to restore.
+     * @return Restored {@link GameState} or null if the snapshot does not belong to the {@link GameMap}.
+     */
+    public GameState restoreSnapshot(GameSnapshot snapshot) {
+        GameState initialState = this.newGame();
+
+        if(snapshot.getEnemyCount() != this.enemies.size()) {
+            System.out.println("ERROR: The snapshot does not belong to the current map!");
+            return null;
+        }
+
+        this.map.revertChunks();
+
+        for(Map.Entry<Long, byte[]> chunk : snapshot.getMapChunks().entrySet()) {
+            this.map.writeChunk(MapPosition.unpackX(chunk.getKey()), MapPosition.unpackY(chunk.getKey()),
+                    chunk.getValue());
+        }
+
+        for(int i = 0; i < this.enemies.size(); i++) {
+            long position = snapshot.getEnemyPosition(i);
+
+            this.enemies.get(i).setPosition(new MapPosition(MapPosition.unpackX(position),
+                    MapPosition.unpackY(position)));
+            this.enemies.get(i).setNextAttackTick(snapshot.getEnemyAttackTick(i));
+        }
+
+        this.distanceField.invalidate();
+
+        this.syncedState = new GameState(snapshot.getTick(), snapshot.getPlayerX(), snapshot.getPlayerY(),
+                snapshot.getPlayerHealth(), snapshot.getStatus(), 0, this.getEnemyPositions(),
+                this.getEnemyAttackTicks(), initialState.getEnemyTypes());
+
+        return this.syncedState;
+    }
+
+    /**
+     * Function to simulate a single step of the game. The given {@link GameState} is never modified, and the result
+     * only depends on it and the direction: the enemies (owned by the {@link GameEngine}) are synced from it first if
+     * it is not the last {@link GameState} produced.
+     * @param state Current {@link GameState}.
+     * @param playerDirection {@link Player}'s desired move direction or null if there is no input on this step.
+     * @return New {@link GameState} with the {@link GameEvent}s that happened on this step.
+     */
+    public GameState step(GameState state, EntityDirection playerDirection) {
+        long tick = state.getTick() + 1;
+        int playerX = state.getPlayerX();
+        int playerY = state.getPlayerY();
+        int playerHealth = state.getPlayerHealth();
+        GameStatus status = state.getStatus();
+        long[] enemyPositions = state.getEnemyPositions();
+        long[] enemyAttackTicks = state.getEnemyAttackTicks();
+        int events = 0;
+
+        if(status != GameStatus.PLAYING) {
+            return new GameState(tick, playerX, playerY, playerHealth, status, events, enemyPositions,
+                    enemyAttackTicks, state.getEnemyTypes());
+        }
+
+        this.syncEnemies(state);
+
+        if(playerDirection != null && this.canEntityMove(playerX, playerY, playerDirection)) {
+            playerX += playerDirection.getDeltaX();
+            playerY += playerDirection.getDeltaY();
+
+            events |= GameEvent.PLAYER_MOVED.getMask();
+
+            /* Get the surroundings of the player ready on maps loaded on demand */
+            this.map.prefetch(playerX - PREFETCH_RADIUS, playerY - PREFETCH_RADIUS, playerX + PREFETCH_RADIUS,
+                    playerY + PREFETCH_RADIUS);
+
+            /* Check if player has moved to a spikes cell */
+            if(this.isSpikesCell(playerX, playerY)) {
+                playerHealth -= GameMap.SPIKES_CELL_DAMAGE;
+                events |= GameEvent.PLAYER_DAMAGED.getMask();
+            }
+        }
+
+        /* Move the enemies towards the player */
+        if(this.moveEnemies(tick, playerX, playerY)) {
+            enemyPositions = this.getEnemyPositions();
+            events |= GameEvent.ENEMIES_MOVED.getMask();
+        }
+
+        /* Check if player has been attacked by an enemy */
+        int damage = this.attackPlayer(tick, playerX, playerY);
+
+        if(damage > 0) {
+            enemyAttackTicks = this.getEnemyAttackTicks();
+            playerHealth -= damage;
+            events |= GameEvent.PLAYER_DAMAGED.getMask();
+        }
+
+        /* Check if player has dead or won */
+        if(playerHealth <= 0) {
+            status = GameStatus.DEAD;
+            events |= GameEvent.PLAYER_DIED.getMask();
+        } else if(this.isEndCell(playerX, playerY)) {
+            status = GameStatus.WON;
+            events |= GameEvent.PLAYER_WON.getMask();
+        }
+
+        this.syncedState = new GameState(tick, playerX, playerY, playerHealth, status, events, enemyPositions,
+                enemyAttackTicks, state.getEnemyTypes());
+
+        return this.syncedState;
+    }
+
+    /**
+     * Function to move the enemies whose turn it is through the {@link EntityScheduler}. A single
+     * {@link DistanceField} flood from the {@link Player} is shared by all of them.
+     * @param tick Current tick of the game.
+     * @param playerX X-axis position of the {@link Player}.
+     * @param playerY Y-axis position of the {@link Player}.
+     * @return Whether any enemy has moved or not.
+     */
+    private boolean moveEnemies(long tick, int playerX, int playerY) {
+        if(this.enemies.isEmpty()) {
+            return false;
+        }
+
+        this.distanceField.compute(this.map, playerX, playerY);
+
+        return this.entityScheduler.update(this.enemies, this.distanceField, tick, this.isParallel);
+    }
+
+    /**
+     * Function to make every enemy on the {@link Player}'s cell attack it. The enemies are looked up on the
+     * {@link OccupancyGrid}, so the cost does not depend on the number of enemies.
+     * @param tick Current tick of the game.
+     * @param playerX X-axis position of the {@link Player}.
+     * @param playerY Y-axis position of the {@link Player}.
+     * @return Total damage caused to the {@link Player}.
+     */
+    private int attackPlayer(long tick, int playerX, int playerY) {
+        int damage = 0;
+
+        for(int id = this.occupancyGrid.getFirstAt(playerX, playerY); id != OccupancyGrid.NONE;
+            id = this.occupancyGrid.getNext(id)) {
+            damage += this.enemies.get(id).attack(tick);
+        }
+
+        return damage;
+    }
+
+    /**
+     * Function to take the packed positions of the enemies.
+     * @return New array with the packed positions of the enemies.
+     */
+    private long[] getEnemyPositions() {
+        long[] enemyPositions = new long[this.enemies.size()];
+
+        for(int i = 0; i < enemyPositions.length; i++) {
+            enemyPositions[i] = this.enemies.get(i).getPosition().pack();
+        }
+
+        return enemyPositions;
+    }
+
+    /**
+     * Function to take the attack cooldowns of the enemies.
+     * @return New array with the first tick on which each enemy can attack again.
+     */
+    private long[] getEnemyAttackTicks() {
+        long[] enemyAttackTicks = new long[this.enemies.size()];
+
+        for(int i = 0; i < enemyAttackTicks.length; i++) {
+            enemyAttackTicks[i] = this.enemies.get(i).getNextAttackTick();
+        }
+
+        return enemyAttackTicks;
+    }
+
+    /**
+     * Function to take the types of the enemies.
+     * @return New array with the {@link EnemyType} of each enemy.
+     */
+    private EnemyType[] getEnemyTypes() {
+        EnemyType[] enemyTypes = new EnemyType[this.enemies.size()];
+
+        for(int i = 0; i < enemyTypes.length; i++) {
+            enemyTypes[i] = this.enemies.get(i).getType();
+        }
+
+        return enemyTypes;
+    }
+
+    /**
+     * Function to check whether an entity can move from a cell to a desired {@link EntityDirection} (the next cell
+     * is inside the {@link GameMap} and is not a wall).
+     * @param x X-axis position of the entity.
+     * @param y Y-axis position of the entity.
+     * @param direction Entity's desired next move direction.
+     * @return Result of the checkup.
+     */
+    public boolean canEntityMove(int x, int y, EntityDirection direction) {
+        int nextX = x + direction.getDeltaX();
+        int nextY = y + direction.getDeltaY();
+
+        return this.map.isInside(nextX, nextY) && this.isPlayableCell(nextX, nextY);
+    }
+
+    /**
+     * Function to check whether an entity can move to a cell or not (is a wall).
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean isPlayableCell(int x, int y) {
+        return this.map.getCell(x, y) != GameMap.WALL_CELL;
+    }
+
+    /**
+     * Function to check whether a cell is a spikes cell or not.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean isSpikesCell(int x, int y) {
+        return this.map.getCell(x, y) == GameMap.SPIKES_CELL;
+    }
+
+    /**
+     * Function to check whether a cell is the {@link GameMap#END_CELL} or not.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Result of the checkup.
+     */
+    private boolean isEndCell(int x, int y) {
+        return this.map.getCell(x, y) == GameMap.END_CELL;
+    }
+
+    /**
+     * Getter of the {@link OccupancyGrid} with the cells occupied by the enemies.
+     * @return {@link OccupancyGrid} of the enemies.
+     */
+    public OccupancyGrid getOccupancyGrid() {
+        return occupancyGrid;
+    }
+
+    /**
+     * Function to take the new version of the map file of the simulated {@link GameMap}. The {@link Player} stays where
+     * it is, and the flood of the enemies is computed again over the new cells. The enemies stay too, unless the
+     * spawn cells have changed: then they are spawned again on the new ones, so that the running game has the same
+     * enemies as a new game or a snapshot of the new version.
+     * @param state Current {@link GameState}.
+     * @param reload {@link MapReload} of the same size as the simulated {@link GameMap}.
+     * @return {@link GameState} to go on from, with the enemies spawned again if the spawn cells have changed.
+     */
+    public GameState applyMapReload(GameState state, MapReload reload) {
+        long[][] oldSpawnPositions = this.getSpawnPositions();
+
+        this.map.applyReload(reload);
+        this.distanceField.invalidate();
+
+        if(Arrays.deepEquals(oldSpawnPositions, this.getSpawnPositions())) {
+            return state;
+        }
+
+        this.spawnEnemies();
+
+        this.syncedState = new GameState(state.getTick(), state.getPlayerX(), state.getPlayerY(),
+                state.getPlayerHealth(), state.getStatus(), state.getEvents(), this.getEnemyPositions(),
+                this.getEnemyAttackTicks(), this.getEnemyTypes());
+
+        return this.syncedState;
+    }
+
+    /**
+     * Function to get the packed positions of the spawn cells of the {@link GameMap}, grouped by {@link EnemyType} (so
+     * that a spawn cell that changes its type is told apart) and in the order the enemies are spawned on them.
+     * @return Packed positions of the spawn cells of each {@link EnemyType}, by ordinal.
+     */
+    private long[][] getSpawnPositions() {
+        EnemyType[] types = EnemyType.values();
+        long[][] spawnPositions = new long[types.length][];
+
+        for(EnemyType type : types) {
+            long[] positions = new long[this.map.getCellCount(type.getSpawnCell())];
+
+            for(int i = 0; i < positions.length; i++) {
+                positions[i] = this.map.getCellPosition(type.getSpawnCell(), i);
+            }
+
+            spawnPositions[type.ordinal()] = positions;
+        }
+
+        return spawnPositions;
+    }
+
+    /**
+     * Getter of the {@link GameMap} simulated by the {@link GameEngine}.
+     * @return Simulated {@link GameMap}.
+     */
+    public GameMap getMap() {
+        return map;
+    }
+}
@@ -0,0 +1,17 @@
+package model.game;
+
+public enum GameEvent {
+    PLAYER_MOVED,
+    PLAYER_DAMAGED,
+    PLAYER_WON,
+    PLAYER_DIED,
+    ENEMIES_MOVED;
+
+    /**
+     * Getter of the bit that represents the {@link GameEvent} inside a {@link GameState}'s events mask.
+     * @return Bit of the {@link GameEvent}.
+     */
+    public int getMask() {
+        return 1 << this.ordinal();
+    }
+}
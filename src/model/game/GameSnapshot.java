@@ -0,0 +1,130 @@
+package model.game;
+
+import java.util.Map;
+
+/**
+ * Everything needed to restore a game: the {@link GameState} of the {@link model.entities.player.Player}, the
+ * positions and attack cooldowns of the enemies (ordered by id) and the chunks of the {@link model.map.GameMap} that
+ * have changed. Depending on how it was created, the chunks are either every chunk modified since the map was loaded
+ * (a full snapshot) or only those modified since the previous snapshot (an incremental one).
+ */
+public final class GameSnapshot {
+    private final boolean isFull;
+    private final long tick;
+    private final int playerX;
+    private final int playerY;
+    private final int playerHealth;
+    private final GameStatus status;
+    private final long[] enemyPositions;
+    private final long[] enemyAttackTicks;
+    private final Map<Long, byte[]> mapChunks;
+
+    /**
+     * Constructor of a {@link GameSnapshot}. The arrays and chunks are not copied, so they must never be modified
+     * after the {@link GameSnapshot} is created.
+     * @param isFull Whether the chunks are every chunk modified since the map was loaded or not.
+     * @param tick Tick of the game.
+     * @param playerX X-axis position of the {@link model.entities.player.Player}.
+     * @param playerY Y-axis position of the {@link model.entities.player.Player}.
+     * @param playerHealth {@link model.entities.player.Player}'s health.
+     * @param status Status of the game.
+     * @param enemyPositions Packed positions of the enemies.
+     * @param enemyAttackTicks Ticks when the attack cooldowns of the enemies end.
+     * @param mapChunks {@link model.map.CellCodec} codes of the changed chunks by their packed position.
+     */
+    public GameSnapshot(boolean isFull, long tick, int playerX, int playerY, int playerHealth, GameStatus status,
+                        long[] enemyPositions, long[] enemyAttackTicks, Map<Long, byte[]> mapChunks) {
+        this.isFull = isFull;
+        this.tick = tick;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.playerHealth = playerHealth;
+        this.status = status;
+        this.enemyPositions = enemyPositions;
+        this.enemyAttackTicks = enemyAttackTicks;
+        this.mapChunks = mapChunks;
+    }
+
+    /**
+     * Getter of whether the chunks are every chunk modified since the map was loaded or only those modified since the
+     * previous snapshot.
+     * @return Whether the {@link GameSnapshot} is full or not.
+     */
+    public boolean isFull() {
+        return isFull;
+    }
+
+    /**
+     * Getter of the tick of the game.
+     * @return Tick of the game.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Getter of the X-axis position of the {@link model.entities.player.Player}.
+     * @return X-axis position of the {@link model.entities.player.Player}.
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Getter of the Y-axis position of the {@link model.entities.player.Player}.
+     * @return Y-axis position of the {@link model.entities.player.Player}.
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Getter of the {@link model.entities.player.Player}'s health.
+     * @return {@link model.entities.player.Player}'s health.
+     */
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    /**
+     * Getter of the status of the game.
+     * @return Status of the game.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Getter of the number of enemies.
+     * @return Number of enemies.
+     */
+    public int getEnemyCount() {
+        return this.enemyPositions.length;
+    }
+
+    /**
+     * Getter of the packed position of an enemy.
+     * @param index Id of the enemy.
+     * @return Packed position of the enemy (see {@link model.map.MapPosition#pack(int, int)}).
+     */
+    public long getEnemyPosition(int index) {
+        return this.enemyPositions[index];
+    }
+
+    /**
+     * Getter of the tick when the attack cooldown of an enemy ends.
+     * @param index Id of the enemy.
+     * @return Tick when the attack cooldown of the enemy ends.
+     */
+    public long getEnemyAttackTick(int index) {
+        return this.enemyAttackTicks[index];
+    }
+
+    /**
+     * Getter of the changed chunks of the {@link model.map.GameMap}.
+     * @return {@link model.map.CellCodec} codes of the changed chunks by their packed position.
+     */
+    public Map<Long, byte[]> getMapChunks() {
+        return mapChunks;
+    }
+}
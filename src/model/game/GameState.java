@@ -0,0 +1,167 @@
+package model.game;
+
+import model.entities.enemy.EnemyType;
+import model.map.MapPosition;
+
+public final class GameState {
+    private final long tick;
+    private final int playerX;
+    private final int playerY;
+    private final int playerHealth;
+    private final GameStatus status;
+    private final int events;
+    private final long[] enemyPositions;
+    private final long[] enemyAttackTicks;
+    private final EnemyType[] enemyTypes;
+
+    /**
+     * Constructor of a {@link GameState}. The arrays of the enemies are not copied, so they must never be modified
+     * after the {@link GameState} is created (which allows consecutive states to share them).
+     * @param tick Number of steps simulated to reach the {@link GameState}.
+     * @param playerX X-axis position of the {@link model.entities.player.Player}.
+     * @param playerY Y-axis position of the {@link model.entities.player.Player}.
+     * @param playerHealth {@link model.entities.player.Player}'s health.
+     * @param status Status of the game.
+     * @param events Mask of the {@link GameEvent}s that happened on the step that produced the {@link GameState}.
+     * @param enemyPositions Packed positions of the enemies.
+     * @param enemyAttackTicks First tick on which each enemy can attack again.
+     * @param enemyTypes {@link EnemyType}s of the enemies.
+     */
+    public GameState(long tick, int playerX, int playerY, int playerHealth, GameStatus status, int events,
+                     long[] enemyPositions, long[] enemyAttackTicks, EnemyType[] enemyTypes) {
+        this.tick = tick;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.playerHealth = playerHealth;
+        this.status = status;
+        this.events = events;
+        this.enemyPositions = enemyPositions;
+        this.enemyAttackTicks = enemyAttackTicks;
+        this.enemyTypes = enemyTypes;
+    }
+
+    /**
+     * Getter of the number of steps simulated to reach the {@link GameState}.
+     * @return Tick of the {@link GameState}.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Getter of the X-axis position of the {@link model.entities.player.Player}.
+     * @return X-axis position of the {@link model.entities.player.Player}.
+     */
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Getter of the Y-axis position of the {@link model.entities.player.Player}.
+     * @return Y-axis position of the {@link model.entities.player.Player}.
+     */
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Getter of the {@link model.entities.player.Player}'s position as a new {@link MapPosition}.
+     * @return {@link model.entities.player.Player}'s position.
+     */
+    public MapPosition getPlayerPosition() {
+        return new MapPosition(this.playerX, this.playerY);
+    }
+
+    /**
+     * Getter of the {@link model.entities.player.Player}'s health.
+     * @return {@link model.entities.player.Player}'s health.
+     */
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    /**
+     * Getter of the status of the game.
+     * @return Status of the game.
+     */
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Getter of the mask of {@link GameEvent}s that happened on the step that produced the {@link GameState}.
+     * @return Mask of {@link GameEvent}s.
+     */
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * Function to check whether a {@link GameEvent} happened on the step that produced the {@link GameState}.
+     * @param event {@link GameEvent} to check.
+     * @return Result of the checkup.
+     */
+    public boolean hasEvent(GameEvent event) {
+        return (this.events & event.getMask()) != 0;
+    }
+
+    /**
+     * Getter of the number of enemies.
+     * @return Number of enemies.
+     */
+    public int getEnemyCount() {
+        return this.enemyPositions.length;
+    }
+
+    /**
+     * Getter of the X-axis position of an enemy.
+     * @param index Index of the enemy.
+     * @return X-axis position of the enemy.
+     */
+    public int getEnemyX(int index) {
+        return MapPosition.unpackX(this.enemyPositions[index]);
+    }
+
+    /**
+     * Getter of the Y-axis position of an enemy.
+     * @param index Index of the enemy.
+     * @return Y-axis position of the enemy.
+     */
+    public int getEnemyY(int index) {
+        return MapPosition.unpackY(this.enemyPositions[index]);
+    }
+
+    /**
+     * Getter of the {@link EnemyType} of an enemy.
+     * @param index Index of the enemy.
+     * @return {@link EnemyType} of the enemy.
+     */
+    public EnemyType getEnemyType(int index) {
+        return this.enemyTypes[index];
+    }
+
+    /**
+     * Getter of the packed positions of the enemies, shared with the next {@link GameState}s while they do not move.
+     * @return Packed positions of the enemies.
+     */
+    long[] getEnemyPositions() {
+        return enemyPositions;
+    }
+
+    /**
+     * Getter of the first tick on which each enemy can attack again, shared with the next {@link GameState}s while
+     * no enemy attacks.
+     * @return First tick of the next attack of each enemy.
+     */
+    long[] getEnemyAttackTicks() {
+        return enemyAttackTicks;
+    }
+
+    /**
+     * Getter of the {@link EnemyType}s of the enemies, shared with the next {@link GameState}s.
+     * @return {@link EnemyType}s of the enemies.
+     */
+    EnemyType[] getEnemyTypes() {
+        return enemyTypes;
+    }
+}
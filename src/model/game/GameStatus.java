@@ -0,0 +1,7 @@
+package model.game;
+
+public enum GameStatus {
+    PLAYING,
+    WON,
+    DEAD
+}
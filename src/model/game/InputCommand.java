@@ -0,0 +1,51 @@
+package model.game;
+
+import model.entities.EntityDirection;
+
+public enum InputCommand {
+    UP(EntityDirection.UP),
+    DOWN(EntityDirection.DOWN),
+    RIGHT(EntityDirection.RIGHT),
+    LEFT(EntityDirection.LEFT),
+    RESET(null),
+    RESTORE(null),
+    RELOAD(null);
+
+    private static final InputCommand[] COMMANDS = InputCommand.values();
+    private final EntityDirection direction;
+
+    InputCommand(EntityDirection direction) {
+        this.direction = direction;
+    }
+
+    /**
+     * Function to get the {@link InputCommand} that moves the {@link model.entities.player.Player} to a direction.
+     * @param direction {@link model.entities.player.Player}'s move direction.
+     * @return {@link InputCommand} of the move.
+     */
+    public static InputCommand fromDirection(EntityDirection direction) {
+        return switch (direction) {
+            case UP -> UP;
+            case DOWN -> DOWN;
+            case RIGHT -> RIGHT;
+            case LEFT -> LEFT;
+        };
+    }
+
+    /**
+     * Function to get an {@link InputCommand} from its code.
+     * @param code Code of the {@link InputCommand} (its ordinal).
+     * @return {@link InputCommand} or null if the code is not valid.
+     */
+    public static InputCommand fromCode(int code) {
+        return code >= 0 && code < COMMANDS.length ? COMMANDS[code] : null;
+    }
+
+    /**
+     * Getter of the {@link model.entities.player.Player}'s move direction of the {@link InputCommand}.
+     * @return Move direction or null if the {@link InputCommand} is not a move.
+     */
+    public EntityDirection getDirection() {
+        return direction;
+    }
+}
@@ -0,0 +1,48 @@
+package model.game;
+
+/**
+ * Recorded {@link InputCommand}s of a session, in the order they were applied, each with the tick it belongs to.
+ * Moves belong to the tick of the step that applied them, while resets and restores belong to the last tick
+ * simulated before them.
+ */
+public final class InputLog {
+    private final long[] ticks;
+    private final InputCommand[] commands;
+
+    /**
+     * Constructor of an {@link InputLog}. The arrays are not copied, so they must never be modified after the
+     * {@link InputLog} is created.
+     * @param ticks Ticks of the commands.
+     * @param commands Recorded {@link InputCommand}s.
+     */
+    public InputLog(long[] ticks, InputCommand[] commands) {
+        this.ticks = ticks;
+        this.commands = commands;
+    }
+
+    /**
+     * Getter of the number of recorded commands.
+     * @return Number of commands.
+     */
+    public int getCount() {
+        return this.commands.length;
+    }
+
+    /**
+     * Getter of the tick of a command.
+     * @param index Index of the command.
+     * @return Tick of the command.
+     */
+    public long getTick(int index) {
+        return this.ticks[index];
+    }
+
+    /**
+     * Getter of a recorded command.
+     * @param index Index of the command.
+     * @return Recorded {@link InputCommand}.
+     */
+    public InputCommand getCommand(int index) {
+        return this.commands[index];
+    }
+}
@@ -0,0 +1,77 @@
+package model.map;
+
+import java.util.Arrays;
+
+public abstract class CellCodec {
+    public static final byte INVALID_CODE = -1;
+    private static final char[] CELLS = {
+            GameMap.EMPTY_CELL,
+            GameMap.WALL_CELL,
+            GameMap.SPIKES_CELL,
+            GameMap.START_PLAYER_CELL,
+            GameMap.END_CELL,
+            GameMap.START_FLY_CELL,
+            GameMap.START_SPIDER_CELL
+    };
+    private static final byte[] CODES = CellCodec.createCodesTable();
+
+    /**
+     * Function to create the lookup table that translates the characters of the cells to their codes.
+     * @return Table indexed by character, {@link #INVALID_CODE} for the characters that are not cells.
+     */
+    private static byte[] createCodesTable() {
+        byte[] codes = new byte[256];
+
+        Arrays.fill(codes, INVALID_CODE);
+
+        for(int i = 0; i < CELLS.length; i++) {
+            codes[CELLS[i]] = (byte) i;
+        }
+
+        return codes;
+    }
+
+    /**
+     * Function to check whether a character is a valid cell of a {@link GameMap}.
+     * @param cell Character to check.
+     * @return Result of the checkup.
+     */
+    public static boolean isValidCell(char cell) {
+        return cell < CODES.length && CODES[cell] != INVALID_CODE;
+    }
+
+    /**
+     * Function to get the compact code of a cell.
+     * @param cell Character of the cell (type of cell).
+     * @return Code of the cell or {@link #INVALID_CODE} if the character is not a cell.
+     */
+    public static byte encode(char cell) {
+        return cell < CODES.length ? CODES[cell] : INVALID_CODE;
+    }
+
+    /**
+     * Function to check whether a code is the code of a cell of a {@link GameMap}.
+     * @param code Code to check.
+     * @return Result of the checkup.
+     */
+    public static boolean isValidCode(byte code) {
+        return code >= 0 && code < CELLS.length;
+    }
+
+    /**
+     * Function to get the cell of a compact code.
+     * @param code Code of the cell.
+     * @return The character (type of cell) of the code.
+     */
+    public static char decode(byte code) {
+        return CELLS[code];
+    }
+
+    /**
+     * Getter of the number of different cells (and codes).
+     * @return Number of different cells.
+     */
+    public static int getCellTypesCount() {
+        return CELLS.length;
+    }
+}
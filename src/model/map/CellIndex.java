@@ -0,0 +1,57 @@
+package model.map;
+
+/**
+ * Index of the positions of the sparse cells of a {@link GameMap} (start, end, spikes and enemy spawns), in row-major
+ * order. Empty and wall cells are not indexed, as they cover most of the map.
+ */
+public interface CellIndex {
+    long NO_POSITION = -1;
+
+    /**
+     * Function to create the index that suits a storage: maps loaded on demand get a {@link ChunkedCellIndex}, which
+     * reads nothing up front and takes bounded memory, and any other map a {@link FlatCellIndex}.
+     * @param storage Storage of the cells of the {@link GameMap}.
+     * @return New {@link CellIndex}.
+     */
+    static CellIndex create(CellStorage storage) {
+        return storage.isLoadedOnDemand() ? new ChunkedCellIndex(storage) : new FlatCellIndex(storage);
+    }
+
+    /**
+     * Function to check whether the positions of a cell are indexed or not.
+     * @param cell Character of the cell (type of cell).
+     * @return Result of the checkup.
+     */
+    static boolean isIndexedCell(char cell) {
+        return CellCodec.isValidCell(cell) && cell != GameMap.EMPTY_CELL && cell != GameMap.WALL_CELL;
+    }
+
+    /**
+     * Function to get the code of an indexed cell.
+     * @param cell Character of the cell (type of cell).
+     * @return {@link CellCodec} code of the cell.
+     */
+    static byte getIndexedCode(char cell) {
+        if(!CellIndex.isIndexedCell(cell)) {
+            throw new IllegalArgumentException("The cell '" + cell + "' is not indexed");
+        }
+
+        return CellCodec.encode(cell);
+    }
+
+    /**
+     * Function to get the number of cells of a type.
+     * @param cell Character of the cell (type of cell), which has to be indexed.
+     * @return Number of cells of the type.
+     */
+    int getCount(char cell);
+
+    /**
+     * Function to get the packed position of the n-th cell of a type, in row-major order.
+     * @param cell Character of the cell (type of cell), which has to be indexed.
+     * @param index Index of the cell, between 0 and {@link #getCount(char)}.
+     * @return Packed position of the cell (see {@link MapPosition#pack(int, int)}) or {@link #NO_POSITION} if there
+     * are not that many cells of the type.
+     */
+    long getPosition(char cell, int index);
+}
@@ -0,0 +1,63 @@
+package model.map;
+
+public interface CellStorage {
+    /**
+     * Getter for the max number of cells of the storage on the X-axis.
+     * @return Max number of cells on the X-axis.
+     */
+    int getMaxCellsX();
+
+    /**
+     * Getter for the max number of cells of the storage on the Y-axis.
+     * @return Max number of cells on the Y-axis.
+     */
+    int getMaxCellsY();
+
+    /**
+     * Function to get the {@link CellCodec} code of a specific cell given its coordinates.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return The code of the specified cell.
+     */
+    byte getCellCode(int x, int y);
+
+    /**
+     * Function to get a specific cell given its coordinates.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return The character (type of cell) of the specified cell.
+     */
+    default char getCell(int x, int y) {
+        return CellCodec.decode(this.getCellCode(x, y));
+    }
+
+    /**
+     * Function to change the {@link CellCodec} code of a specific cell. Read-only storages do not change it.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @param code New code of the cell.
+     * @return Whether the cell has been changed or not.
+     */
+    default boolean setCellCode(int x, int y, byte code) {
+        return false;
+    }
+
+    /**
+     * Function to hint that the cells of an area are going to be read soon. Storages that keep all their cells
+     * available ignore it.
+     * @param fromX First X-axis position (inclusive) of the area.
+     * @param fromY First Y-axis position (inclusive) of the area.
+     * @param toX Last X-axis position (inclusive) of the area.
+     * @param toY Last Y-axis position (inclusive) of the area.
+     */
+    default void prefetch(int fromX, int fromY, int toX, int toY) {
+    }
+
+    /**
+     * Function to check whether the cells are read from the map file on demand instead of being all on memory.
+     * @return Result of the checkup.
+     */
+    default boolean isLoadedOnDemand() {
+        return false;
+    }
+}
@@ -0,0 +1,152 @@
+package model.map;
+
+/**
+ * {@link CellIndex} of a map loaded on demand (see {@link ChunkedCellStorage}), which reads nothing when the map is
+ * opened. The map is split into bands of {@link ChunkedCellStorage#CHUNK_SIZE} rows, whose number of cells of each
+ * type is counted the first time it is needed, and a lookup skips the bands that end before the cell it looks for.
+ * Only the positions of the last row read are kept, so that iterating over the cells of a type reads each row once,
+ * and the memory taken depends on the width and height of the map, not on its number of sparse cells.
+ * <p>
+ * The index is shared by every copy-on-write overlay of the map, so its methods are synchronized.
+ */
+public class ChunkedCellIndex implements CellIndex {
+    private static final int BAND_SIZE = ChunkedCellStorage.CHUNK_SIZE;
+    private final CellStorage storage;
+    private final int[][] bandCounts;
+    private final long[] totals;
+    private boolean isCounted;
+    private final long[] rowPositions;
+    private byte rowCode;
+    private int rowY;
+    private long rowFirstIndex;
+    private int rowCount;
+
+    public ChunkedCellIndex(CellStorage storage) {
+        this.storage = storage;
+        this.bandCounts = new int[(storage.getMaxCellsY() + BAND_SIZE - 1) / BAND_SIZE][];
+        this.totals = new long[CellCodec.getCellTypesCount()];
+        this.isCounted = false;
+        this.rowPositions = new long[storage.getMaxCellsX()];
+        this.rowCode = CellCodec.INVALID_CODE;
+        this.rowY = -1;
+        this.rowFirstIndex = 0;
+        this.rowCount = 0;
+    }
+
+    /**
+     * Function to get the number of cells of a type, counting every band of the map the first time it is asked for.
+     * @param cell Character of the cell (type of cell), which has to be indexed.
+     * @return Number of cells of the type (at most {@link Integer#MAX_VALUE}).
+     */
+    @Override
+    public synchronized int getCount(char cell) {
+        byte code = CellIndex.getIndexedCode(cell);
+
+        if(!this.isCounted) {
+            for(int i = 0; i < this.bandCounts.length; i++) {
+                int[] counts = this.getBandCounts(i);
+
+                for(int j = 0; j < counts.length; j++) {
+                    this.totals[j] += counts[j];
+                }
+            }
+
+            this.isCounted = true;
+        }
+
+        return (int) Math.min(this.totals[code], Integer.MAX_VALUE);
+    }
+
+    /**
+     * Function to get the packed position of the n-th cell of a type, in row-major order. The lookup goes on from the
+     * last row read if it is of the same type and before the cell, so only the first lookup reads from the top.
+     * @param cell Character of the cell (type of cell), which has to be indexed.
+     * @param index Index of the cell, between 0 and {@link #getCount(char)}.
+     * @return Packed position of the cell (see {@link MapPosition#pack(int, int)}) or {@link #NO_POSITION} if there
+     * are not that many cells of the type.
+     */
+    @Override
+    public synchronized long getPosition(char cell, int index) {
+        byte code = CellIndex.getIndexedCode(cell);
+        int y = 0;
+        long firstIndex = 0;
+
+        if(index < 0) {
+            return NO_POSITION;
+        }
+
+        if(code == this.rowCode && index >= this.rowFirstIndex) {
+            if(index < this.rowFirstIndex + this.rowCount) {
+                return this.rowPositions[(int) (index - this.rowFirstIndex)];
+            }
+
+            y = this.rowY + 1;
+            firstIndex = this.rowFirstIndex + this.rowCount;
+        }
+
+        while(y < this.storage.getMaxCellsY()) {
+            if(y % BAND_SIZE == 0) {
+                int bandCount = this.getBandCounts(y / BAND_SIZE)[code];
+
+                /* Skip the whole band if the cell is not on it */
+                if(index >= firstIndex + bandCount) {
+                    firstIndex += bandCount;
+                    y += BAND_SIZE;
+                    continue;
+                }
+            }
+
+            this.readRow(code, y, firstIndex);
+
+            if(index < firstIndex + this.rowCount) {
+                return this.rowPositions[(int) (index - firstIndex)];
+            }
+
+            firstIndex += this.rowCount;
+            y++;
+        }
+
+        return NO_POSITION;
+    }
+
+    /**
+     * Function to get the number of cells of each type of a band, counting them the first time they are needed.
+     * @param band Index of the band.
+     * @return Number of cells of each type, by {@link CellCodec} code.
+     */
+    private int[] getBandCounts(int band) {
+        if(this.bandCounts[band] == null) {
+            int[] counts = new int[CellCodec.getCellTypesCount()];
+            int lastY = Math.min(this.storage.getMaxCellsY(), (band + 1) * BAND_SIZE);
+
+            for(int i = band * BAND_SIZE; i < lastY; i++) {
+                for(int j = 0; j < this.storage.getMaxCellsX(); j++) {
+                    counts[this.storage.getCellCode(j, i)]++;
+                }
+            }
+
+            this.bandCounts[band] = counts;
+        }
+
+        return this.bandCounts[band];
+    }
+
+    /**
+     * Function to read the positions of the cells of a type of a row, which are kept until another row is read.
+     * @param code {@link CellCodec} code of the cell.
+     * @param y Y-axis position of the row.
+     * @param firstIndex Index of the first cell of the type of the row.
+     */
+    private void readRow(byte code, int y, long firstIndex) {
+        this.rowCode = code;
+        this.rowY = y;
+        this.rowFirstIndex = firstIndex;
+        this.rowCount = 0;
+
+        for(int i = 0; i < this.storage.getMaxCellsX(); i++) {
+            if(this.storage.getCellCode(i, y) == code) {
+                this.rowPositions[this.rowCount++] = MapPosition.pack(i, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package model.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Storage that splits the cells of a map file into square chunks of {@link #CHUNK_SIZE} cells per side, loads them
+ * from the file on demand (or ahead of time through {@link #prefetch(int, int, int, int)}) and evicts the least
+ * recently used ones, so the memory taken does not depend on the size of the map. The cells can be stored on the
+ * file either as text characters or as {@link CellCodec} codes, as long as every row takes the same bytes.
+ */
+public class ChunkedCellStorage implements CellStorage, AutoCloseable {
+    public static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SHIFT = 6;
+    private static final int RECENT_CHUNKS = 64;
+    private final int maxCellsX;
+    private final int maxCellsY;
+    private final FileChannel channel;
+    private final long dataOffset;
+    private final long rowStride;
+    private final boolean isTextEncoded;
+    private final int maxChunks;
+    private final LinkedHashMap<Long, Chunk> chunks;
+    private final Chunk[] recentChunks;
+    private final Set<Long> pendingChunks;
+    private final ExecutorService prefetchExecutor;
+
+    /**
+     * Constructor of a {@link ChunkedCellStorage}.
+     * @param maxCellsX Max number of cells on the X-axis.
+     * @param maxCellsY Max number of cells on the Y-axis.
+     * @param channel Channel of the map file, closed with the storage.
+     * @param dataOffset Position of the first cell on the file.
+     * @param rowStride Bytes between the start of two consecutive rows on the file (including line breaks).
+     * @param isTextEncoded Whether the cells are stored as text characters or as {@link CellCodec} codes.
+     * @param maxChunks Max number of chunks kept on memory. It is raised to a whole band of chunks plus one, so
+     *                  that a row-by-row scan of the map does not evict the chunks it is about to read again.
+     */
+    public ChunkedCellStorage(int maxCellsX, int maxCellsY, FileChannel channel, long dataOffset, long rowStride,
+                              boolean isTextEncoded, int maxChunks) {
+        this.maxCellsX = maxCellsX;
+        this.maxCellsY = maxCellsY;
+        this.channel = channel;
+        this.dataOffset = dataOffset;
+        this.rowStride = rowStride;
+        this.isTextEncoded = isTextEncoded;
+        this.maxChunks = Math.max(maxChunks, (maxCellsX + CHUNK_SIZE - 1) / CHUNK_SIZE + 1);
+        this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+        this.recentChunks = new Chunk[RECENT_CHUNKS];
+        this.pendingChunks = new HashSet<>();
+        this.prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chunk-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int getMaxCellsX() {
+        return maxCellsX;
+    }
+
+    @Override
+    public int getMaxCellsY() {
+        return maxCellsY;
+    }
+
+    /**
+     * Function to get the code of a specific cell, loading its chunk from the file if it is not on memory.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return The code of the specified cell.
+     */
+    @Override
+    public byte getCellCode(int x, int y) {
+        return this.getChunk(x >> CHUNK_SHIFT, y >> CHUNK_SHIFT).codes[((y & (CHUNK_SIZE - 1)) << CHUNK_SHIFT) |
+                (x & (CHUNK_SIZE - 1))];
+    }
+
+    @Override
+    public boolean isLoadedOnDemand() {
+        return true;
+    }
+
+    /**
+     * Function to load on the background the chunks of an area that are not on memory yet (e.g. the surroundings of
+     * the player or the visible viewport), so that they are ready when they are read.
+     * @param fromX First X-axis position (inclusive) of the area.
+     * @param fromY First Y-axis position (inclusive) of the area.
+     * @param toX Last X-axis position (inclusive) of the area.
+     * @param toY Last Y-axis position (inclusive) of the area.
+     */
+    @Override
+    public void prefetch(int fromX, int fromY, int toX, int toY) {
+        int fromChunkX = Math.max(0, fromX) >> CHUNK_SHIFT;
+        int fromChunkY = Math.max(0, fromY) >> CHUNK_SHIFT;
+        int toChunkX = Math.min(this.maxCellsX - 1, toX) >> CHUNK_SHIFT;
+        int toChunkY = Math.min(this.maxCellsY - 1, toY) >> CHUNK_SHIFT;
+
+        for(int chunkY = fromChunkY; chunkY <= toChunkY; chunkY++) {
+            for(int chunkX = fromChunkX; chunkX <= toChunkX; chunkX++) {
+                Long key = MapPosition.pack(chunkX, chunkY);
+                int prefetchX = chunkX, prefetchY = chunkY;
+
+                synchronized(this) {
+                    if(this.chunks.containsKey(key) || !this.pendingChunks.add(key)) {
+                        continue;
+                    }
+                }
+
+                this.prefetchExecutor.execute(() -> {
+                    this.getChunk(prefetchX, prefetchY);
+
+                    synchronized(this) {
+                        this.pendingChunks.remove(key);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Function to get a chunk, looking it up first on a small direct-mapped table of recently used chunks (which
+     * needs no locking, as chunks never change once loaded) and then on the LRU cache.
+     * @param chunkX X-axis position of the chunk.
+     * @param chunkY Y-axis position of the chunk.
+     * @return Chunk with the codes of its cells.
+     */
+    private Chunk getChunk(int chunkX, int chunkY) {
+        long key = MapPosition.pack(chunkX, chunkY);
+        int slot = (chunkX * 31 + chunkY) & (RECENT_CHUNKS - 1);
+        Chunk chunk = this.recentChunks[slot];
+
+        if(chunk != null && chunk.key == key) {
+            return chunk;
+        }
+
+        synchronized(this) {
+            chunk = this.chunks.get(key);
+        }
+
+        /* Read the chunk without holding the lock, so that other threads can keep using the loaded chunks */
+        if(chunk == null) {
+            Chunk loadedChunk = this.loadChunk(key, chunkX, chunkY);
+
+            synchronized(this) {
+                chunk = this.chunks.putIfAbsent(key, loadedChunk);
+
+                if(chunk == null) {
+                    chunk = loadedChunk;
+                    this.evictChunks();
+                }
+            }
+        }
+
+        this.recentChunks[slot] = chunk;
+
+        return chunk;
+    }
+
+    /**
+     * Function to evict the least recently used chunks while there are too many of them on memory.
+     */
+    private void evictChunks() {
+        while(this.chunks.size() > this.maxChunks) {
+            Map.Entry<Long, Chunk> eldest = this.chunks.entrySet().iterator().next();
+            Chunk chunk = eldest.getValue();
+            int slot = (MapPosition.unpackX(chunk.key) * 31 + MapPosition.unpackY(chunk.key)) & (RECENT_CHUNKS - 1);
+
+            if(this.recentChunks[slot] == chunk) {
+                this.recentChunks[slot] = null;
+            }
+
+            this.chunks.remove(eldest.getKey());
+        }
+    }
+
+    /**
+     * Function to read the cells of a chunk from the file. The chunks on the right and bottom edges of the map are
+     * padded with walls.
+     * @param key Packed position of the chunk.
+     * @param chunkX X-axis position of the chunk.
+     * @param chunkY Y-axis position of the chunk.
+     * @return Loaded chunk.
+     */
+    private Chunk loadChunk(long key, int chunkX, int chunkY) {
+        byte[] codes = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        int firstX = chunkX << CHUNK_SHIFT;
+        int firstY = chunkY << CHUNK_SHIFT;
+        int width = Math.min(CHUNK_SIZE, this.maxCellsX - firstX);
+        int height = Math.min(CHUNK_SIZE, this.maxCellsY - firstY);
+        byte wallCode = CellCodec.encode(GameMap.WALL_CELL);
+        ByteBuffer row = ByteBuffer.allocate(CHUNK_SIZE);
+
+        Arrays.fill(codes, wallCode);
+
+        try {
+            for(int i = 0; i < height; i++) {
+                long position = this.dataOffset + (firstY + i) * this.rowStride + firstX;
+
+                row.clear().limit(width);
+
+                while(row.hasRemaining() && this.channel.read(row, position + row.position()) > 0) {
+                    /* Keep reading until the whole row of the chunk has been read */
+                }
+
+                for(int j = 0; j < row.position(); j++) {
+                    byte value = row.get(j);
+                    byte code = this.isTextEncoded ? CellCodec.encode((char) (value & 0xFF)) : value;
+
+                    codes[(i << CHUNK_SHIFT) | j] = code >= 0 && code < CellCodec.getCellTypesCount() ? code : wallCode;
+                }
+            }
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the chunk " + chunkX + ", " + chunkY + " of the map file!");
+        }
+
+        return new Chunk(key, codes);
+    }
+
+    /**
+     * Getter of the number of chunks currently on memory.
+     * @return Number of loaded chunks.
+     */
+    public synchronized int getLoadedChunks() {
+        return this.chunks.size();
+    }
+
+    /**
+     * Getter of the max number of chunks kept on memory.
+     * @return Max number of chunks.
+     */
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    /**
+     * Function to stop the prefetching and close the map file.
+     */
+    @Override
+    public void close() {
+        this.prefetchExecutor.shutdownNow();
+
+        try {
+            this.channel.close();
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot close the map file!");
+        }
+    }
+
+    private static final class Chunk {
+        private final long key;
+        private final byte[] codes;
+
+        private Chunk(long key, byte[] codes) {
+            this.key = key;
+            this.codes = codes;
+        }
+    }
+}
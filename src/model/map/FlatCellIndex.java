@@ -0,0 +1,60 @@
+package model.map;
+
+/**
+ * {@link CellIndex} of a map whose cells are all on memory, built with a couple of scans when the map is loaded and
+ * kept on an array of positions per type of cell.
+ */
+public class FlatCellIndex implements CellIndex {
+    private final long[][] positions;
+    private final int[] counts;
+
+    public FlatCellIndex(CellStorage storage) {
+        this.positions = new long[CellCodec.getCellTypesCount()][];
+        this.counts = new int[CellCodec.getCellTypesCount()];
+
+        this.build(storage);
+    }
+
+    /**
+     * Function to build the index with two scans of the storage: the first one counts the cells of each type so that
+     * the second one can store the packed positions on arrays of the exact size.
+     * @param storage Storage of the cells of the {@link GameMap}.
+     */
+    private void build(CellStorage storage) {
+        int[] totals = new int[this.counts.length];
+
+        for(int i = 0; i < storage.getMaxCellsY(); i++) {
+            for(int j = 0; j < storage.getMaxCellsX(); j++) {
+                totals[storage.getCellCode(j, i)]++;
+            }
+        }
+
+        for(int i = 0; i < this.positions.length; i++) {
+            boolean isIndexed = CellIndex.isIndexedCell(CellCodec.decode((byte) i));
+
+            this.positions[i] = new long[isIndexed ? totals[i] : 0];
+        }
+
+        for(int i = 0; i < storage.getMaxCellsY(); i++) {
+            for(int j = 0; j < storage.getMaxCellsX(); j++) {
+                byte code = storage.getCellCode(j, i);
+
+                if(this.counts[code] < this.positions[code].length) {
+                    this.positions[code][this.counts[code]++] = MapPosition.pack(j, i);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getCount(char cell) {
+        return this.counts[CellIndex.getIndexedCode(cell)];
+    }
+
+    @Override
+    public long getPosition(char cell, int index) {
+        long[] positions = this.positions[CellIndex.getIndexedCode(cell)];
+
+        return index >= 0 && index < positions.length ? positions[index] : NO_POSITION;
+    }
+}
@@ -0,0 +1,41 @@
+package model.map;
+
+public class FlatCellStorage implements CellStorage {
+    private final int maxCellsX;
+    private final int maxCellsY;
+    private final byte[] cells;
+
+    /**
+     * Constructor of a {@link FlatCellStorage}.
+     * @param maxCellsX Max number of cells on the X-axis.
+     * @param maxCellsY Max number of cells on the Y-axis.
+     * @param cells {@link CellCodec} codes of the cells, row by row (the cell (x, y) is at y * maxCellsX + x).
+     */
+    public FlatCellStorage(int maxCellsX, int maxCellsY, byte[] cells) {
+        this.maxCellsX = maxCellsX;
+        this.maxCellsY = maxCellsY;
+        this.cells = cells;
+    }
+
+    @Override
+    public int getMaxCellsX() {
+        return maxCellsX;
+    }
+
+    @Override
+    public int getMaxCellsY() {
+        return maxCellsY;
+    }
+
+    @Override
+    public byte getCellCode(int x, int y) {
+        return this.cells[y * this.maxCellsX + x];
+    }
+
+    @Override
+    public boolean setCellCode(int x, int y, byte code) {
+        this.cells[y * this.maxCellsX + x] = code;
+
+        return true;
+    }
+}
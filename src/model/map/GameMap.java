@@ -1,9 +1,16 @@
 package model.map;
 
-import java.util.ArrayList;
+import model.ai.MapAnalysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 public class GameMap {
     public static final int SPIKES_CELL_DAMAGE = 1;
+    public static final int CHUNK_SIZE = 64;
     public static final char START_PLAYER_CELL = 'S';
     public static final char END_CELL = 'W';
     public static final char EMPTY_CELL = ' ';
@@ -13,12 +20,90 @@ public class GameMap {
     public static final char START_SPIDER_CELL = '-';
     private final int maxCellsX;
     private final int maxCellsY;
-    private final char[][] map;
+    private final CellStorage storage;
+    private CellIndex cellIndex;
+    private MapAnalysis analysis;
+    private boolean isAnalysisShared;
+    private final Map<Long, byte[]> originalChunks;
+    private Set<Long> dirtyChunks;
+
+    public GameMap(int maxCellsX, int maxCellsY, byte[] cells) {
+        this(new FlatCellStorage(maxCellsX, maxCellsY, cells));
+    }
+
+    public GameMap(CellStorage storage) {
+        this(storage, CellIndex.create(storage));
+    }
+
+    private GameMap(CellStorage storage, CellIndex cellIndex) {
+        this.maxCellsX = storage.getMaxCellsX();
+        this.maxCellsY = storage.getMaxCellsY();
+        this.storage = storage;
+        this.cellIndex = cellIndex;
+        this.analysis = null;
+        this.isAnalysisShared = false;
+        this.originalChunks = new HashMap<>();
+        this.dirtyChunks = new HashSet<>();
+    }
+
+    /**
+     * Function to create a copy-on-write {@link GameMap} over this one. The copy shares the cells and the index of
+     * the sparse cells, and keeps its own changes on an {@link OverlayCellStorage}, so creating it costs nothing and
+     * its memory grows only with its changes. This {@link GameMap} must not change while it has copies.
+     * @return Copy-on-write {@link GameMap}.
+     */
+    public GameMap createOverlay() {
+        GameMap overlay = new GameMap(new OverlayCellStorage(this.storage), this.cellIndex);
+
+        /* Share the analysis too, until the copy changes a cell */
+        overlay.analysis = this.analysis;
+        overlay.isAnalysisShared = true;
+
+        return overlay;
+    }
+
+    /**
+     * Function to get the {@link MapAnalysis} of the {@link GameMap} (reachability and distances to the exit),
+     * analysing the whole map the first time it is asked for. From then on it is updated on every change of a cell.
+     * @return {@link MapAnalysis} of the {@link GameMap} or null if the map is too big to be analysed (more than
+     * {@link MapAnalysis#MAX_ANALYZED_CELLS} cells) or loaded on demand.
+     */
+    public MapAnalysis getAnalysis() {
+        if(this.analysis == null && (long) this.maxCellsX * this.maxCellsY <= MapAnalysis.MAX_ANALYZED_CELLS &&
+                !this.storage.isLoadedOnDemand()) {
+            this.analysis = new MapAnalysis(this);
+            this.isAnalysisShared = false;
+        }
 
-    public GameMap(int maxCellsX, int maxCellsY, char[][] map) {
-        this.maxCellsX = maxCellsX;
-        this.maxCellsY = maxCellsY;
-        this.map = map;
+        return this.analysis;
+    }
+
+    /**
+     * Function to write the code of a cell on the storage, updating the {@link MapAnalysis} if it has already been
+     * computed. A shared analysis is dropped instead, as copying its arrays would take several times the memory of
+     * the whole map: the copy-on-write {@link GameMap} analyses itself again only if it is asked for.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @param code New {@link CellCodec} code of the cell.
+     * @return Whether the cell has been changed or not (the storage of the map may be read-only).
+     */
+    private boolean writeCellCode(int x, int y, byte code) {
+        byte oldCode = this.storage.getCellCode(x, y);
+
+        if(!this.storage.setCellCode(x, y, code)) {
+            return false;
+        }
+
+        if(this.analysis != null && oldCode != code) {
+            if(this.isAnalysisShared) {
+                this.analysis = null;
+                this.isAnalysisShared = false;
+            } else {
+                this.analysis.update(this, x, y, CellCodec.decode(oldCode), CellCodec.decode(code));
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -38,21 +123,38 @@ public class GameMap {
     }
 
     /**
-     * Function to get all the positions for a cell.
-     * @return A list of {@link MapPosition}s to locate a cell type.
+     * Function to get the number of cells of a type, looked up on the {@link CellIndex} of the map.
+     * @param cell Character of the cell (type of cell). Empty and wall cells are not indexed.
+     * @return Number of cells of the type.
      */
-    public ArrayList<MapPosition> getPositionByCell(char cell) {
-        ArrayList<MapPosition> positions = new ArrayList<>();
+    public int getCellCount(char cell) {
+        return this.cellIndex.getCount(cell);
+    }
 
-        for(int i = 0; i < this.maxCellsY; i++) {
-            for(int j = 0; j < this.maxCellsX; j++) {
-                if(this.map[i][j] == cell) {
-                    positions.add(new MapPosition(j, i));
-                }
-            }
+    /**
+     * Function to get the packed position of the n-th cell of a type without allocating.
+     * @param cell Character of the cell (type of cell). Empty and wall cells are not indexed.
+     * @param index Index of the cell, between 0 and {@link #getCellCount(char)}.
+     * @return Packed position of the cell (see {@link MapPosition#pack(int, int)}) or {@link CellIndex#NO_POSITION} if
+     * there are not that many cells of the type.
+     */
+    public long getCellPosition(char cell, int index) {
+        return this.cellIndex.getPosition(cell, index);
+    }
+
+    /**
+     * Function to get the position of the first cell of a type.
+     * @param cell Character of the cell (type of cell). Empty and wall cells are not indexed.
+     * @return {@link MapPosition} of the first cell of the type or null if there is none.
+     */
+    public MapPosition getFirstPositionByCell(char cell) {
+        long position = this.cellIndex.getPosition(cell, 0);
+
+        if(position == CellIndex.NO_POSITION) {
+            return null;
         }
 
-        return positions;
+        return new MapPosition(MapPosition.unpackX(position), MapPosition.unpackY(position));
     }
 
     /**
@@ -61,14 +163,206 @@ public class GameMap {
      * @return The character (type of cell) of the specified cell.
      */
     public char getCellByPosition(MapPosition position) {
-        return this.map[position.getY()][position.getX()];
+        return this.storage.getCell(position.getX(), position.getY());
+    }
+
+    /**
+     * Function to get a specific cell given its coordinates.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return The character (type of cell) of the specified cell.
+     */
+    public char getCell(int x, int y) {
+        return this.storage.getCell(x, y);
+    }
+
+    /**
+     * Function to get a specific cell given its packed position (see {@link MapPosition#pack(int, int)}).
+     * @param position Packed position of the cell.
+     * @return The character (type of cell) of the specified cell.
+     */
+    public char getCell(long position) {
+        return this.storage.getCell(MapPosition.unpackX(position), MapPosition.unpackY(position));
+    }
+
+    /**
+     * Function to change a specific cell. The chunk of {@link #CHUNK_SIZE} cells per side that holds it is marked as
+     * dirty, and its original cells are kept the first time it changes so that it can be reverted. The index of the
+     * sparse cells keeps the cells as loaded.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @param cell New character (type of cell) of the cell.
+     * @return Whether the cell has been changed or not (the storage of the map may be read-only, and characters that
+     * are not a type of cell are rejected).
+     */
+    public boolean setCell(int x, int y, char cell) {
+        byte code = CellCodec.encode(cell);
+
+        /* The invalid code is also the mark of the unchanged cells of an overlay, so it cannot be stored */
+        if(code == CellCodec.INVALID_CODE) {
+            return false;
+        }
+
+        long chunk = MapPosition.pack(x / CHUNK_SIZE, y / CHUNK_SIZE);
+        byte[] originalChunk = this.originalChunks.containsKey(chunk) ? null :
+                this.copyChunk(x / CHUNK_SIZE, y / CHUNK_SIZE);
+
+        if(!this.writeCellCode(x, y, code)) {
+            return false;
+        }
+
+        if(originalChunk != null) {
+            this.originalChunks.put(chunk, originalChunk);
+        }
+
+        this.dirtyChunks.add(chunk);
+
+        return true;
+    }
+
+    /**
+     * Function to take the new version of the map file this {@link GameMap} was loaded from. Only the changed cells are
+     * written, and they become part of the map as loaded: they are not marked as dirty, and the original copies of
+     * the modified chunks are updated so that reverting them keeps the new version. The index of the sparse cells is
+     * replaced by the one of the new version.
+     * @param reload {@link MapReload} of the same size as this {@link GameMap}.
+     */
+    public void applyReload(MapReload reload) {
+        GameMap reloadedMap = reload.getMap();
+
+        for(long cell : reload.getChangedCells()) {
+            int x = MapPosition.unpackX(cell);
+            int y = MapPosition.unpackY(cell);
+            byte code = reloadedMap.storage.getCellCode(x, y);
+            byte[] originalChunk = this.originalChunks.get(MapPosition.pack(x / CHUNK_SIZE, y / CHUNK_SIZE));
+
+            this.writeCellCode(x, y, code);
+
+            if(originalChunk != null) {
+                originalChunk[(y % CHUNK_SIZE) * CHUNK_SIZE + x % CHUNK_SIZE] = code;
+            }
+        }
+
+        this.cellIndex = reloadedMap.cellIndex;
+    }
+
+    /**
+     * Function to find the cells that differ between two versions of a map.
+     * @param oldMap Previous version of the map.
+     * @param newMap New version of the map.
+     * @return Packed positions (see {@link MapPosition#pack(int, int)}) of the changed cells, or null if the maps do
+     * not have the same size.
+     */
+    public static long[] findChangedCells(GameMap oldMap, GameMap newMap) {
+        if(oldMap.maxCellsX != newMap.maxCellsX || oldMap.maxCellsY != newMap.maxCellsY) {
+            return null;
+        }
+
+        long[] changedCells = new long[16];
+        int count = 0;
+
+        for(int i = 0; i < oldMap.maxCellsY; i++) {
+            for(int j = 0; j < oldMap.maxCellsX; j++) {
+                if(oldMap.storage.getCellCode(j, i) != newMap.storage.getCellCode(j, i)) {
+                    if(count == changedCells.length) {
+                        changedCells = Arrays.copyOf(changedCells, count * 2);
+                    }
+
+                    changedCells[count++] = MapPosition.pack(j, i);
+                }
+            }
+        }
+
+        return Arrays.copyOf(changedCells, count);
+    }
+
+    /**
+     * Function to copy the codes of the cells of a chunk. The cells of the chunk that are outside the
+     * {@link GameMap} are copied as walls.
+     * @param chunkX X-axis position of the chunk.
+     * @param chunkY Y-axis position of the chunk.
+     * @return {@link CellCodec} codes of the cells of the chunk, row by row.
+     */
+    public byte[] copyChunk(int chunkX, int chunkY) {
+        byte[] codes = new byte[CHUNK_SIZE * CHUNK_SIZE];
+
+        Arrays.fill(codes, CellCodec.encode(WALL_CELL));
+
+        for(int i = 0; i < CHUNK_SIZE && chunkY * CHUNK_SIZE + i < this.maxCellsY; i++) {
+            for(int j = 0; j < CHUNK_SIZE && chunkX * CHUNK_SIZE + j < this.maxCellsX; j++) {
+                codes[i * CHUNK_SIZE + j] = this.storage.getCellCode(chunkX * CHUNK_SIZE + j, chunkY * CHUNK_SIZE + i);
+            }
+        }
+
+        return codes;
+    }
+
+    /**
+     * Function to overwrite the cells of a chunk with the codes copied by {@link #copyChunk(int, int)}.
+     * @param chunkX X-axis position of the chunk.
+     * @param chunkY Y-axis position of the chunk.
+     * @param codes {@link CellCodec} codes of the cells of the chunk, row by row.
+     */
+    public void writeChunk(int chunkX, int chunkY, byte[] codes) {
+        for(int i = 0; i < CHUNK_SIZE && chunkY * CHUNK_SIZE + i < this.maxCellsY; i++) {
+            for(int j = 0; j < CHUNK_SIZE && chunkX * CHUNK_SIZE + j < this.maxCellsX; j++) {
+                this.setCell(chunkX * CHUNK_SIZE + j, chunkY * CHUNK_SIZE + i,
+                        CellCodec.decode(codes[i * CHUNK_SIZE + j]));
+            }
+        }
+    }
+
+    /**
+     * Function to revert every chunk that has changed since the {@link GameMap} was loaded. The reverted chunks are
+     * marked as dirty.
+     */
+    public void revertChunks() {
+        for(Map.Entry<Long, byte[]> entry : this.originalChunks.entrySet()) {
+            this.writeChunk(MapPosition.unpackX(entry.getKey()), MapPosition.unpackY(entry.getKey()), entry.getValue());
+        }
+
+        this.originalChunks.clear();
+    }
+
+    /**
+     * Function to take the chunks that have changed since the last time they were taken.
+     * @return Packed positions (see {@link MapPosition#pack(int, int)}) of the dirty chunks.
+     */
+    public Set<Long> drainDirtyChunks() {
+        Set<Long> dirtyChunks = this.dirtyChunks;
+
+        this.dirtyChunks = new HashSet<>();
+
+        return dirtyChunks;
+    }
+
+    /**
+     * Function to get the chunks that have changed since the {@link GameMap} was loaded.
+     * @return Packed positions (see {@link MapPosition#pack(int, int)}) of the modified chunks.
+     */
+    public Set<Long> getModifiedChunks() {
+        return new HashSet<>(this.originalChunks.keySet());
+    }
+
+    /**
+     * Function to check whether some coordinates are inside the {@link GameMap}.
+     * @param x X-axis position.
+     * @param y Y-axis position.
+     * @return Result of the checkup.
+     */
+    public boolean isInside(int x, int y) {
+        return x >= 0 && y >= 0 && x < this.maxCellsX && y < this.maxCellsY;
     }
 
     /**
-     * Getter of the map's terrain.
-     * @return A 2D-array containing the {@link GameMap}'s terrain.
+     * Function to hint that the cells of an area are going to be read soon, so that storages that load the cells on
+     * demand can get them ready.
+     * @param fromX First X-axis position (inclusive) of the area.
+     * @param fromY First Y-axis position (inclusive) of the area.
+     * @param toX Last X-axis position (inclusive) of the area.
+     * @param toY Last Y-axis position (inclusive) of the area.
      */
-    public char[][] getMap() {
-        return map;
+    public void prefetch(int fromX, int fromY, int toX, int toY) {
+        this.storage.prefetch(fromX, fromY, toX, toY);
     }
-}
\ No newline at end of file
+}
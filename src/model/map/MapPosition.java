@@ -1,8 +1,10 @@
 package model.map;
 
-public class MapPosition {
-    private int x;
-    private int y;
+import model.entities.EntityDirection;
+
+public final class MapPosition {
+    private final int x;
+    private final int y;
 
     public MapPosition(int x, int y) {
         this.x = x;
@@ -10,19 +12,48 @@ public class MapPosition {
     }
 
     /**
-     * Getter of the X-axis position.
+     * Function to pack a position into a single long (X-axis position on the high half and Y-axis position on the
+     * low half), so that it can be stored and compared without allocating a {@link MapPosition}.
+     * @param x X-axis position.
+     * @param y Y-axis position.
+     * @return Packed position.
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Function to get the X-axis position of a packed position.
+     * @param position Packed position.
      * @return X-axis position.
      */
-    public int getX() {
-        return x;
+    public static int unpackX(long position) {
+        return (int) (position >> 32);
     }
 
     /**
-     * Setter of the X-axis position.
-     * @param x X-axis position.
+     * Function to get the Y-axis position of a packed position.
+     * @param position Packed position.
+     * @return Y-axis position.
      */
-    public void setX(int x) {
-        this.x = x;
+    public static int unpackY(long position) {
+        return (int) position;
+    }
+
+    /**
+     * Function to get the packed version of the {@link MapPosition}.
+     * @return Packed position.
+     */
+    public long pack() {
+        return MapPosition.pack(this.x, this.y);
+    }
+
+    /**
+     * Getter of the X-axis position.
+     * @return X-axis position.
+     */
+    public int getX() {
+        return x;
     }
 
     /**
@@ -34,10 +65,35 @@ public class MapPosition {
     }
 
     /**
-     * Setter of the Y-axis position.
-     * @param y Y-axis position.
+     * Function to get the adjacent {@link MapPosition} on a {@link EntityDirection}. The {@link MapPosition} is
+     * immutable, so a new one is returned.
+     * @param direction {@link EntityDirection} of the adjacent position.
+     * @return Adjacent {@link MapPosition}.
      */
-    public void setY(int y) {
-        this.y = y;
+    public MapPosition translate(EntityDirection direction) {
+        return new MapPosition(this.x + direction.getDeltaX(), this.y + direction.getDeltaY());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if(this == object) {
+            return true;
+        }
+
+        if(!(object instanceof MapPosition position)) {
+            return false;
+        }
+
+        return this.x == position.x && this.y == position.y;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.pack());
+    }
+
+    @Override
+    public String toString() {
+        return "(" + this.x + ", " + this.y + ")";
     }
 }
@@ -0,0 +1,46 @@
+package model.map;
+
+/**
+ * New version of a map file that has changed on disk, with the cells that differ from the previous version so that
+ * a running game can take only those.
+ */
+public final class MapReload {
+    private final GameMap map;
+    private final long[] changedCells;
+
+    /**
+     * Constructor of a {@link MapReload}.
+     * @param map {@link GameMap} of the new version of the map file.
+     * @param changedCells Packed positions (see {@link MapPosition#pack(int, int)}) of the cells that differ from the
+     *                     previous version, or null if the size of the map has changed.
+     */
+    public MapReload(GameMap map, long[] changedCells) {
+        this.map = map;
+        this.changedCells = changedCells;
+    }
+
+    /**
+     * Getter of the {@link GameMap} of the new version of the map file.
+     * @return {@link GameMap} reloaded.
+     */
+    public GameMap getMap() {
+        return map;
+    }
+
+    /**
+     * Getter of the cells that differ from the previous version.
+     * @return Packed positions of the changed cells, or null if the size of the map has changed.
+     */
+    public long[] getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Function to check whether the reload can be applied to a game running on the previous version, which needs
+     * both versions to have the same size.
+     * @return Result of the checkup.
+     */
+    public boolean isCompatible() {
+        return this.changedCells != null;
+    }
+}
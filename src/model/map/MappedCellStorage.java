@@ -0,0 +1,39 @@
+package model.map;
+
+import java.nio.MappedByteBuffer;
+
+public class MappedCellStorage implements CellStorage {
+    private final int maxCellsX;
+    private final int maxCellsY;
+    private final MappedByteBuffer buffer;
+    private final int offset;
+
+    public MappedCellStorage(int maxCellsX, int maxCellsY, MappedByteBuffer buffer, int offset) {
+        this.maxCellsX = maxCellsX;
+        this.maxCellsY = maxCellsY;
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    @Override
+    public int getMaxCellsX() {
+        return maxCellsX;
+    }
+
+    @Override
+    public int getMaxCellsY() {
+        return maxCellsY;
+    }
+
+    /**
+     * Function to get the code of a specific cell straight from the memory-mapped file, without copying it to the
+     * heap.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return The code of the specified cell.
+     */
+    @Override
+    public byte getCellCode(int x, int y) {
+        return this.buffer.get(this.offset + y * this.maxCellsX + x);
+    }
+}
@@ -0,0 +1,297 @@
+package model.map;
+
+import model.entities.Entity;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Spatial hash of the cells occupied by entities, kept next to the {@link GameMap}. Only the occupied cells take
+ * memory, so it works for maps of any size. Each cell holds an intrusive list of the ids of the entities on it, and
+ * the lists are updated incrementally every time an {@link Entity}'s position changes.
+ */
+public class OccupancyGrid {
+    public static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private long[] keys;
+    private int[] heads;
+    private boolean[] isUsed;
+    private int usedSlots;
+    private int[] next;
+    private int[] previous;
+    private long[] cells;
+
+    public OccupancyGrid() {
+        this.next = new int[INITIAL_CAPACITY];
+        this.previous = new int[INITIAL_CAPACITY];
+        this.cells = new long[INITIAL_CAPACITY];
+
+        this.resizeTable(INITIAL_CAPACITY * 2);
+    }
+
+    /**
+     * Function to remove every {@link Entity} from the {@link OccupancyGrid}.
+     */
+    public void clear() {
+        Arrays.fill(this.isUsed, false);
+        this.usedSlots = 0;
+    }
+
+    /**
+     * Function to add an {@link Entity} and keep track of its position from now on.
+     * @param id Id of the {@link Entity}, a small non-negative number unique on the {@link OccupancyGrid}.
+     * @param entity {@link Entity} to add.
+     */
+    public void add(int id, Entity entity) {
+        this.add(id, entity.getPosition().getX(), entity.getPosition().getY());
+
+        entity.setPositionListener((oldPosition, newPosition) -> this.move(id, newPosition.pack()));
+    }
+
+    /**
+     * Function to add an entity that is not an {@link Entity} (e.g. a copy of its position), whose moves have to be
+     * reported through {@link #move(int, int, int)}.
+     * @param id Id of the entity, a small non-negative number unique on the {@link OccupancyGrid}.
+     * @param x X-axis position of the entity.
+     * @param y Y-axis position of the entity.
+     */
+    public void add(int id, int x, int y) {
+        if(id >= this.next.length) {
+            int capacity = Math.max(id + 1, this.next.length * 2);
+
+            this.next = Arrays.copyOf(this.next, capacity);
+            this.previous = Arrays.copyOf(this.previous, capacity);
+            this.cells = Arrays.copyOf(this.cells, capacity);
+        }
+
+        this.insert(id, MapPosition.pack(x, y));
+    }
+
+    /**
+     * Function to move an entity added through {@link #add(int, int, int)} to another cell.
+     * @param id Id of the entity.
+     * @param x New X-axis position of the entity.
+     * @param y New Y-axis position of the entity.
+     */
+    public void move(int id, int x, int y) {
+        this.move(id, MapPosition.pack(x, y));
+    }
+
+    /**
+     * Function to move an entity from its current cell to another one.
+     * @param id Id of the entity.
+     * @param cell Packed position of the new cell.
+     */
+    private void move(int id, long cell) {
+        if(this.cells[id] != cell) {
+            this.remove(id);
+            this.insert(id, cell);
+        }
+    }
+
+    /**
+     * Function to insert an entity at the head of the list of a cell.
+     * @param id Id of the entity.
+     * @param cell Packed position of the cell.
+     */
+    private void insert(int id, long cell) {
+        int slot = this.findOrCreateSlot(cell);
+        int head = this.heads[slot];
+
+        this.cells[id] = cell;
+        this.previous[id] = NONE;
+        this.next[id] = head;
+
+        if(head != NONE) {
+            this.previous[head] = id;
+        }
+
+        this.heads[slot] = id;
+    }
+
+    /**
+     * Function to unlink an entity from the list of its cell.
+     * @param id Id of the entity.
+     */
+    private void remove(int id) {
+        int previousId = this.previous[id];
+        int nextId = this.next[id];
+
+        if(previousId != NONE) {
+            this.next[previousId] = nextId;
+        } else {
+            this.heads[this.findSlot(this.cells[id])] = nextId;
+        }
+
+        if(nextId != NONE) {
+            this.previous[nextId] = previousId;
+        }
+    }
+
+    /**
+     * Function to find the slot of a cell on the hash table.
+     * @param cell Packed position of the cell.
+     * @return Slot of the cell or {@link #NONE} if the cell has never been occupied.
+     */
+    private int findSlot(long cell) {
+        int mask = this.keys.length - 1;
+        int slot = OccupancyGrid.hash(cell) & mask;
+
+        while(this.isUsed[slot]) {
+            if(this.keys[slot] == cell) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Function to find the slot of a cell on the hash table, creating it if needed. Slots of cells that became empty
+     * are kept (so that entities moving back and forth do not touch the table) until the table is rebuilt.
+     * @param cell Packed position of the cell.
+     * @return Slot of the cell.
+     */
+    private int findOrCreateSlot(long cell) {
+        int slot = this.findSlot(cell);
+
+        if(slot != NONE) {
+            return slot;
+        }
+
+        if((this.usedSlots + 1) * 2 > this.keys.length) {
+            this.rebuildTable();
+        }
+
+        int mask = this.keys.length - 1;
+
+        slot = OccupancyGrid.hash(cell) & mask;
+
+        while(this.isUsed[slot]) {
+            slot = (slot + 1) & mask;
+        }
+
+        this.isUsed[slot] = true;
+        this.keys[slot] = cell;
+        this.heads[slot] = NONE;
+        this.usedSlots++;
+
+        return slot;
+    }
+
+    /**
+     * Function to rebuild the hash table dropping the slots of the empty cells, doubling its size if most of the
+     * slots still hold entities.
+     */
+    private void rebuildTable() {
+        long[] oldKeys = this.keys;
+        int[] oldHeads = this.heads;
+        boolean[] oldIsUsed = this.isUsed;
+        int occupiedSlots = 0;
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldIsUsed[i] && oldHeads[i] != NONE) {
+                occupiedSlots++;
+            }
+        }
+
+        this.resizeTable(occupiedSlots * 4 > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+
+        int mask = this.keys.length - 1;
+
+        for(int i = 0; i < oldKeys.length; i++) {
+            if(oldIsUsed[i] && oldHeads[i] != NONE) {
+                int slot = OccupancyGrid.hash(oldKeys[i]) & mask;
+
+                while(this.isUsed[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+
+                this.isUsed[slot] = true;
+                this.keys[slot] = oldKeys[i];
+                this.heads[slot] = oldHeads[i];
+                this.usedSlots++;
+            }
+        }
+    }
+
+    /**
+     * Function to allocate an empty hash table.
+     * @param capacity Number of slots, a power of two.
+     */
+    private void resizeTable(int capacity) {
+        this.keys = new long[capacity];
+        this.heads = new int[capacity];
+        this.isUsed = new boolean[capacity];
+        this.usedSlots = 0;
+    }
+
+    /**
+     * Function to spread the bits of a packed position over the slots of the table.
+     * @param cell Packed position of the cell.
+     * @return Hash of the cell.
+     */
+    private static int hash(long cell) {
+        long value = cell * 0x9E3779B97F4A7C15L;
+
+        return (int) (value ^ (value >>> 32));
+    }
+
+    /**
+     * Function to get the first entity on a cell. The rest of them are reached with {@link #getNext(int)}, so the
+     * entities of a cell can be iterated without allocating.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Id of the first entity or {@link #NONE} if the cell is empty.
+     */
+    public int getFirstAt(int x, int y) {
+        int slot = this.findSlot(MapPosition.pack(x, y));
+
+        return slot == NONE ? NONE : this.heads[slot];
+    }
+
+    /**
+     * Function to get the next entity on the same cell as another one.
+     * @param id Id of the entity.
+     * @return Id of the next entity or {@link #NONE} if there are no more entities on the cell.
+     */
+    public int getNext(int id) {
+        return this.next[id];
+    }
+
+    /**
+     * Function to check whether a cell is occupied by any entity.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @return Result of the checkup.
+     */
+    public boolean isOccupied(int x, int y) {
+        return this.getFirstAt(x, y) != NONE;
+    }
+
+    /**
+     * Function to visit every entity within a radius (euclidean distance) of a cell, looking up only the cells
+     * inside the radius.
+     * @param x X-axis position of the center.
+     * @param y Y-axis position of the center.
+     * @param radius Radius in cells.
+     * @param consumer Function called with the id of each entity found.
+     */
+    public void forEachInRadius(int x, int y, int radius, IntConsumer consumer) {
+        int squaredRadius = radius * radius;
+
+        for(int deltaY = -radius; deltaY <= radius; deltaY++) {
+            for(int deltaX = -radius; deltaX <= radius; deltaX++) {
+                if(deltaX * deltaX + deltaY * deltaY > squaredRadius) {
+                    continue;
+                }
+
+                for(int id = this.getFirstAt(x + deltaX, y + deltaY); id != NONE; id = this.next[id]) {
+                    consumer.accept(id);
+                }
+            }
+        }
+    }
+}
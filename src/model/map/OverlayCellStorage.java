@@ -0,0 +1,195 @@
+package model.map;
+
+import java.util.Arrays;
+
+/**
+ * Copy-on-write view of a shared {@link CellStorage}: the cells are read from the base storage, which is never
+ * written, until they are changed. The changed cells are kept on small blocks of {@link #BLOCK_SIZE} cells per side,
+ * allocated the first time one of their cells changes, so the memory of the overlay grows with its changes and not
+ * with the size of the map. The table of blocks is replaced as a whole when it grows, so other threads reading the
+ * cells (e.g. the EDT painting them) never see it half resized.
+ */
+public class OverlayCellStorage implements CellStorage {
+    public static final int BLOCK_SIZE = 16;
+    private static final int BLOCK_SHIFT = 4;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final byte UNCHANGED = -1;
+    private final CellStorage base;
+    private volatile BlockTable table;
+    private int blockCount;
+    private int changedCells;
+
+    public OverlayCellStorage(CellStorage base) {
+        this.base = base;
+        this.table = new BlockTable(INITIAL_CAPACITY);
+        this.blockCount = 0;
+        this.changedCells = 0;
+    }
+
+    @Override
+    public int getMaxCellsX() {
+        return this.base.getMaxCellsX();
+    }
+
+    @Override
+    public int getMaxCellsY() {
+        return this.base.getMaxCellsY();
+    }
+
+    @Override
+    public byte getCellCode(int x, int y) {
+        /* Overlays without changes cost a single check over the base storage */
+        if(this.blockCount != 0) {
+            byte[] block = this.findBlock(MapPosition.pack(x >> BLOCK_SHIFT, y >> BLOCK_SHIFT));
+
+            if(block != null) {
+                byte code = block[(y & (BLOCK_SIZE - 1)) * BLOCK_SIZE + (x & (BLOCK_SIZE - 1))];
+
+                if(code != UNCHANGED) {
+                    return code;
+                }
+            }
+        }
+
+        return this.base.getCellCode(x, y);
+    }
+
+    @Override
+    public boolean setCellCode(int x, int y, byte code) {
+        byte[] block = this.findOrCreateBlock(MapPosition.pack(x >> BLOCK_SHIFT, y >> BLOCK_SHIFT));
+        int index = (y & (BLOCK_SIZE - 1)) * BLOCK_SIZE + (x & (BLOCK_SIZE - 1));
+
+        if(block[index] == UNCHANGED) {
+            this.changedCells++;
+        }
+
+        block[index] = code;
+
+        return true;
+    }
+
+    @Override
+    public void prefetch(int fromX, int fromY, int toX, int toY) {
+        this.base.prefetch(fromX, fromY, toX, toY);
+    }
+
+    @Override
+    public boolean isLoadedOnDemand() {
+        return this.base.isLoadedOnDemand();
+    }
+
+    /**
+     * Function to find the block of changed cells of a position on the open-addressing table.
+     * @param key Packed position of the block.
+     * @return Cells of the block or null if none of them has changed.
+     */
+    private byte[] findBlock(long key) {
+        BlockTable table = this.table;
+        int mask = table.keys.length - 1;
+
+        for(int slot = OverlayCellStorage.hash(key) & mask; table.blocks[slot] != null; slot = (slot + 1) & mask) {
+            if(table.keys[slot] == key) {
+                return table.blocks[slot];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Function to find the block of changed cells of a position, creating it (with every cell unchanged) if needed.
+     * @param key Packed position of the block.
+     * @return Cells of the block.
+     */
+    private byte[] findOrCreateBlock(long key) {
+        byte[] block = this.findBlock(key);
+
+        if(block != null) {
+            return block;
+        }
+
+        if((this.blockCount + 1) * 2 > this.table.keys.length) {
+            this.resizeTable(this.table.keys.length * 2);
+        }
+
+        block = new byte[BLOCK_SIZE * BLOCK_SIZE];
+        Arrays.fill(block, UNCHANGED);
+
+        this.table.insert(key, block);
+        this.blockCount++;
+
+        return block;
+    }
+
+    /**
+     * Function to move every block to a bigger table, which replaces the current one once it is complete.
+     * @param capacity Number of slots, a power of two.
+     */
+    private void resizeTable(int capacity) {
+        BlockTable oldTable = this.table;
+        BlockTable newTable = new BlockTable(capacity);
+
+        for(int i = 0; i < oldTable.keys.length; i++) {
+            if(oldTable.blocks[i] != null) {
+                newTable.insert(oldTable.keys[i], oldTable.blocks[i]);
+            }
+        }
+
+        this.table = newTable;
+    }
+
+    /**
+     * Function to spread the bits of a packed position over the slots of the table.
+     * @param key Packed position of the block.
+     * @return Hash of the block.
+     */
+    private static int hash(long key) {
+        long value = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (value ^ (value >>> 32));
+    }
+
+    /**
+     * Getter of the number of cells changed over the base storage.
+     * @return Number of changed cells.
+     */
+    public int getChangedCells() {
+        return changedCells;
+    }
+
+    /**
+     * Function to estimate the memory held by the changes of the overlay.
+     * @return Approximate number of bytes of the blocks and their table.
+     */
+    public long getOverlayBytes() {
+        return (long) this.blockCount * BLOCK_SIZE * BLOCK_SIZE + this.table.keys.length * (Long.BYTES + 8L);
+    }
+
+    private static class BlockTable {
+        private final long[] keys;
+        private final byte[][] blocks;
+
+        BlockTable(int capacity) {
+            this.keys = new long[capacity];
+            this.blocks = new byte[capacity][];
+        }
+
+        /**
+         * Function to insert a block on the first free slot of its key. The key is written before the block, which
+         * is what marks the slot as used.
+         * @param key Packed position of the block.
+         * @param block Cells of the block.
+         */
+        void insert(long key, byte[] block) {
+            int mask = this.keys.length - 1;
+            int slot = OverlayCellStorage.hash(key) & mask;
+
+            while(this.blocks[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+
+            this.keys[slot] = key;
+            this.blocks[slot] = block;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("model.metrics.AssetLoad")
+@Label("Asset Load")
+@Category("Game")
+public class AssetLoadEvent extends jdk.jfr.Event {
+    @Label("Path")
+    public String path;
+}
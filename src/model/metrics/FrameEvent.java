@@ -0,0 +1,16 @@
+package model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("model.metrics.Frame")
+@Label("Frame Render")
+@Category("Game")
+public class FrameEvent extends jdk.jfr.Event {
+    @Label("Camera Mode")
+    public boolean isCameraMode;
+
+    @Label("Painted Cells")
+    public int paintedCells;
+}
@@ -0,0 +1,104 @@
+package model.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Summary of a {@link LatencyHistogram}, in microseconds. It is exposed through JMX as composite data.
+ */
+public final class HistogramSummary {
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    @ConstructorProperties({"name", "count", "mean", "p50", "p90", "p99", "p999", "max"})
+    public HistogramSummary(String name, long count, double mean, double p50, double p90, double p99, double p999,
+                            double max) {
+        this.name = name;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Getter of the name of the summarized {@link LatencyHistogram}.
+     * @return Name of the histogram.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter of the number of recorded latencies.
+     * @return Number of latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter of the mean latency.
+     * @return Mean latency in microseconds.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Getter of the median latency.
+     * @return 50th percentile in microseconds.
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Getter of the 90th percentile latency.
+     * @return 90th percentile in microseconds.
+     */
+    public double getP90() {
+        return p90;
+    }
+
+    /**
+     * Getter of the 99th percentile latency.
+     * @return 99th percentile in microseconds.
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Getter of the 99.9th percentile latency.
+     * @return 99.9th percentile in microseconds.
+     */
+    public double getP999() {
+        return p999;
+    }
+
+    /**
+     * Getter of the highest latency.
+     * @return Highest latency in microseconds.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Function to format the summary on a single line.
+     * @return Formatted summary.
+     */
+    @Override
+    public String toString() {
+        return String.format("%-14s n=%-8d p50=%8.1f p99=%8.1f max=%9.1f us", this.name, this.count, this.p50,
+                this.p99, this.max);
+    }
+}
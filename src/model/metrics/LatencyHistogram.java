@@ -0,0 +1,142 @@
+package model.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (in the style of HdrHistogram): every power of two is split in
+ * {@link #SUB_BUCKETS} linear buckets, so any value from 1 ns to centuries is recorded with a relative error below
+ * 1 / {@link #SUB_BUCKETS} using a fixed array of counters. Recording is a single atomic increment and never
+ * allocates, so it can be called from the game loop and the EDT on every tick and frame.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS * 2;
+    private final String name;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray totals;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+        this.counts = new AtomicLongArray(BUCKETS);
+        /* Total count, total nanoseconds and max nanoseconds */
+        this.totals = new AtomicLongArray(3);
+    }
+
+    /**
+     * Function to record a latency.
+     * @param nanos Latency in nanoseconds (negative values are recorded as 0).
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+
+        this.counts.incrementAndGet(LatencyHistogram.getBucket(value));
+        this.totals.incrementAndGet(0);
+        this.totals.addAndGet(1, value);
+
+        long max = this.totals.get(2);
+
+        while(value > max && !this.totals.compareAndSet(2, max, value)) {
+            max = this.totals.get(2);
+        }
+    }
+
+    /**
+     * Function to get the bucket of a value: values below 2 * {@link #SUB_BUCKETS} have a bucket each, and the rest
+     * share a bucket with the values that have the same highest {@link #SUB_BUCKET_BITS} + 1 bits.
+     * @param value Non-negative value.
+     * @return Index of the bucket.
+     */
+    private static int getBucket(long value) {
+        if(value < SUB_BUCKETS * 2) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Function to get the highest value that falls in a bucket.
+     * @param bucket Index of the bucket.
+     * @return Highest value of the bucket.
+     */
+    private static long getBucketHighestValue(int bucket) {
+        if(bucket < SUB_BUCKETS * 2) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket - (long) shift * SUB_BUCKETS;
+
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Function to take a consistent enough summary of the recorded latencies (recording can go on while it is taken).
+     * @return {@link HistogramSummary} of the latencies, in microseconds.
+     */
+    public HistogramSummary getSummary() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+
+        for(int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.counts.get(i);
+            count += counts[i];
+        }
+
+        long max = this.totals.get(2);
+
+        /* The highest value of a bucket can be above the real maximum, which bounds every percentile */
+        return new HistogramSummary(this.name, count, count == 0 ? 0 : this.totals.get(1) / 1e3 / count,
+                Math.min(max, LatencyHistogram.getPercentile(counts, count, 0.50)) / 1e3,
+                Math.min(max, LatencyHistogram.getPercentile(counts, count, 0.90)) / 1e3,
+                Math.min(max, LatencyHistogram.getPercentile(counts, count, 0.99)) / 1e3,
+                Math.min(max, LatencyHistogram.getPercentile(counts, count, 0.999)) / 1e3,
+                max / 1e3);
+    }
+
+    /**
+     * Function to get a percentile of the recorded latencies.
+     * @param counts Counts of the buckets.
+     * @param count Total count.
+     * @param percentile Percentile, between 0 and 1.
+     * @return Highest value of the bucket that holds the percentile, in nanoseconds.
+     */
+    private static long getPercentile(long[] counts, long count, double percentile) {
+        long target = Math.max(1, (long) Math.ceil(count * percentile));
+        long accumulated = 0;
+
+        for(int i = 0; i < counts.length; i++) {
+            accumulated += counts[i];
+
+            if(accumulated >= target) {
+                return LatencyHistogram.getBucketHighestValue(i);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Function to forget every recorded latency.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKETS; i++) {
+            this.counts.set(i, 0);
+        }
+
+        for(int i = 0; i < 3; i++) {
+            this.totals.set(i, 0);
+        }
+    }
+
+    /**
+     * Getter of the name of the {@link LatencyHistogram}.
+     * @return Name of the {@link LatencyHistogram}.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,16 @@
+package model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("model.metrics.MapLoad")
+@Label("Map Load")
+@Category("Game")
+public class MapLoadEvent extends jdk.jfr.Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Cells")
+    public long cells;
+}
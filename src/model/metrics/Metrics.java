@@ -0,0 +1,69 @@
+package model.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime metrics of the game: latency histograms of the hot paths and counters of noteworthy events. Everything is
+ * recorded without locks or allocations and can be read through JMX ({@link MetricsMXBean}) or the on-screen
+ * overlay. Profiling sessions can also record the matching JFR events ({@link TickEvent}, {@link FrameEvent},
+ * {@link AssetLoadEvent} and {@link MapLoadEvent}).
+ */
+public abstract class Metrics {
+    public static final String OBJECT_NAME = "model.metrics:type=Metrics";
+    public static final LatencyHistogram TICK_TIME = new LatencyHistogram("tick");
+    public static final LatencyHistogram FRAME_RENDER_TIME = new LatencyHistogram("frame render");
+    public static final LatencyHistogram VIEW_UPDATE_TIME = new LatencyHistogram("view update");
+    public static final LatencyHistogram INPUT_TO_PAINT_TIME = new LatencyHistogram("input to paint");
+    public static final LatencyHistogram ASSET_LOAD_TIME = new LatencyHistogram("asset load");
+    public static final LatencyHistogram MAP_LOAD_TIME = new LatencyHistogram("map load");
+    public static final LongAdder DROPPED_TICKS = new LongAdder();
+    public static final LongAdder COALESCED_STATES = new LongAdder();
+    public static final LongAdder COALESCED_INPUTS = new LongAdder();
+    private static final LatencyHistogram[] HISTOGRAMS = {TICK_TIME, FRAME_RENDER_TIME, VIEW_UPDATE_TIME,
+            INPUT_TO_PAINT_TIME, ASSET_LOAD_TIME, MAP_LOAD_TIME};
+
+    /**
+     * Function to expose the metrics through the platform MBean server as {@link #OBJECT_NAME}.
+     */
+    public static void registerMBean() {
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+
+            if(!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsBean(), objectName);
+            }
+        } catch (JMException exception) {
+            System.out.println("ERROR: Cannot register the metrics MBean!");
+        }
+    }
+
+    /**
+     * Function to take the summaries of every histogram.
+     * @return {@link HistogramSummary} of each histogram.
+     */
+    public static HistogramSummary[] getSummaries() {
+        HistogramSummary[] summaries = new HistogramSummary[HISTOGRAMS.length];
+
+        for(int i = 0; i < HISTOGRAMS.length; i++) {
+            summaries[i] = HISTOGRAMS[i].getSummary();
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Function to forget every recorded metric.
+     */
+    public static void reset() {
+        for(LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+
+        DROPPED_TICKS.reset();
+        COALESCED_STATES.reset();
+        COALESCED_INPUTS.reset();
+    }
+}
@@ -0,0 +1,53 @@
+package model.metrics;
+
+public class MetricsBean implements MetricsMXBean {
+    @Override
+    public HistogramSummary getTickTime() {
+        return Metrics.TICK_TIME.getSummary();
+    }
+
+    @Override
+    public HistogramSummary getFrameRenderTime() {
+        return Metrics.FRAME_RENDER_TIME.getSummary();
+    }
+
+    @Override
+    public HistogramSummary getViewUpdateTime() {
+        return Metrics.VIEW_UPDATE_TIME.getSummary();
+    }
+
+    @Override
+    public HistogramSummary getInputToPaintTime() {
+        return Metrics.INPUT_TO_PAINT_TIME.getSummary();
+    }
+
+    @Override
+    public HistogramSummary getAssetLoadTime() {
+        return Metrics.ASSET_LOAD_TIME.getSummary();
+    }
+
+    @Override
+    public HistogramSummary getMapLoadTime() {
+        return Metrics.MAP_LOAD_TIME.getSummary();
+    }
+
+    @Override
+    public long getDroppedTicks() {
+        return Metrics.DROPPED_TICKS.sum();
+    }
+
+    @Override
+    public long getCoalescedStates() {
+        return Metrics.COALESCED_STATES.sum();
+    }
+
+    @Override
+    public long getCoalescedInputs() {
+        return Metrics.COALESCED_INPUTS.sum();
+    }
+
+    @Override
+    public void reset() {
+        Metrics.reset();
+    }
+}
@@ -0,0 +1,26 @@
+package model.metrics;
+
+/**
+ * JMX view of the {@link Metrics} of the game. Latencies are in microseconds.
+ */
+public interface MetricsMXBean {
+    HistogramSummary getTickTime();
+
+    HistogramSummary getFrameRenderTime();
+
+    HistogramSummary getViewUpdateTime();
+
+    HistogramSummary getInputToPaintTime();
+
+    HistogramSummary getAssetLoadTime();
+
+    HistogramSummary getMapLoadTime();
+
+    long getDroppedTicks();
+
+    long getCoalescedStates();
+
+    long getCoalescedInputs();
+
+    void reset();
+}
@@ -0,0 +1,16 @@
+package model.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("model.metrics.Tick")
+@Label("Game Tick")
+@Category("Game")
+public class TickEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public long tick;
+
+    @Label("Events Mask")
+    public int events;
+}
@@ -1,55 +1,298 @@
 package view;
 
 import model.dao.FilePath;
+import model.entities.enemy.EnemyType;
+import model.game.GameState;
 import model.map.GameMap;
 import model.map.MapPosition;
+import model.map.OccupancyGrid;
+import model.metrics.FrameEvent;
+import model.metrics.Metrics;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 
 public class GameBoard extends JPanel {
+    public static final int CAMERA_TILE_SIZE = 32;
+    public static final int MIN_FIT_TILE_SIZE = 8;
     private final GameMap map;
-    private MapPosition playerPosition;
+    private final SpriteAtlas spriteAtlas;
+    private int playerX;
+    private int playerY;
+    private int[] enemyXs;
+    private int[] enemyYs;
+    private EnemyType[] enemyTypes;
+    private OccupancyGrid enemyGrid;
     private int cellWidth;
     private int cellHeight;
-    private BufferedImage picture;
+    private int cameraX;
+    private int cameraY;
+    private BufferedImage terrainLayer;
+    private long pendingInputTime;
 
-    public GameBoard(GameMap map, MapPosition playerPosition) {
+    public GameBoard(GameMap map, GameState state, SpriteAtlas spriteAtlas) {
         this.map = map;
-        this.playerPosition = playerPosition;
-        this.picture = null;
+        this.playerX = state.getPlayerX();
+        this.playerY = state.getPlayerY();
+        this.spriteAtlas = spriteAtlas;
+        this.cameraX = 0;
+        this.cameraY = 0;
+        this.terrainLayer = null;
+        this.pendingInputTime = 0;
+
+        this.copyEnemies(state);
     }
 
     /**
-     * Function to paint the cells and player on the {@link View}.
+     * Function to paint the cells and player on the {@link View}, measuring how long the frame takes and, if it shows
+     * the result of an input, how long the input took to reach the screen.
      * @param g Instance of {@link Graphics}.
      */
     @Override
     protected void paintComponent(Graphics g) {
+        long startTime = System.nanoTime();
+        FrameEvent event = new FrameEvent();
+
+        event.begin();
         super.paintComponent(g);
 
-        this.cellWidth = this.getWidth() / this.map.getMaxCellsX();
-        this.cellHeight = this.getHeight() / this.map.getMaxCellsY();
+        this.paintBoard(g);
+
+        long endTime = System.nanoTime();
+
+        if(this.cellWidth > 0 && this.cellHeight > 0) {
+            Rectangle clip = g.getClipBounds() != null ? g.getClipBounds() :
+                    new Rectangle(0, 0, this.getWidth(), this.getHeight());
+
+            event.paintedCells = ((clip.width + this.cellWidth - 1) / this.cellWidth) *
+                    ((clip.height + this.cellHeight - 1) / this.cellHeight);
+        }
+
+        event.isCameraMode = this.isCameraMode();
+        event.commit();
+        Metrics.FRAME_RENDER_TIME.record(endTime - startTime);
+
+        if(this.pendingInputTime != 0) {
+            Metrics.INPUT_TO_PAINT_TIME.record(endTime - this.pendingInputTime);
+            this.pendingInputTime = 0;
+        }
+    }
+
+    /**
+     * Function to paint the board. When the whole {@link GameMap} fits on the panel with cells of at least
+     * {@link #MIN_FIT_TILE_SIZE} pixels, the terrain is copied from the cached terrain layer and only the entities
+     * inside the clip area are painted on top of it. Otherwise, only the cells seen by the camera are painted.
+     * @param g Instance of {@link Graphics}.
+     */
+    private void paintBoard(Graphics g) {
+        if(this.isCameraMode()) {
+            this.paintViewport(g);
+            return;
+        }
+
+        this.cameraX = 0;
+        this.cameraY = 0;
+
+        int cellWidth = this.getWidth() / this.map.getMaxCellsX();
+        int cellHeight = this.getHeight() / this.map.getMaxCellsY();
+
+        /* Rebuild the terrain layer only when the size of the cells has changed */
+        if(this.terrainLayer == null || cellWidth != this.cellWidth || cellHeight != this.cellHeight) {
+            this.cellWidth = cellWidth;
+            this.cellHeight = cellHeight;
+            this.renderTerrainLayer();
+        }
+
+        if(this.terrainLayer == null) {
+            return;
+        }
+
+        /* Copy the terrain (the clip area limits the copy to the dirty cells) */
+        g.drawImage(this.terrainLayer, 0, 0, null);
+
+        /* Check if the player is inside the area to repaint */
+        if(g.hitClip(this.cellWidth * this.playerX, this.cellHeight * this.playerY, this.cellWidth, this.cellHeight)) {
+            this.renderPlayer(g, this.playerX, this.playerY);
+        }
+
+        /* Check if any enemy is inside the area to repaint */
+        for(int i = 0; i < this.enemyTypes.length; i++) {
+            if(g.hitClip(this.cellWidth * this.enemyXs[i], this.cellHeight * this.enemyYs[i], this.cellWidth,
+                    this.cellHeight)) {
+                this.renderEnemy(g, this.enemyTypes[i], this.enemyXs[i], this.enemyYs[i]);
+            }
+        }
+    }
+
+    /**
+     * Function to paint the cells seen by the camera, centred on the {@link model.entities.player.Player}, with
+     * tiles of {@link #CAMERA_TILE_SIZE} pixels. Only the cells inside the clip area are painted, so the cost depends
+     * on the size of the panel and not on the size of the {@link GameMap}.
+     * @param g Instance of {@link Graphics}.
+     */
+    private void paintViewport(Graphics g) {
+        this.updateCamera();
+        this.spriteAtlas.setCellSize(this.cellWidth, this.cellHeight);
+
+        Rectangle clip = g.getClipBounds() != null ? g.getClipBounds() :
+                new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        int fromX = this.cameraX + Math.max(0, clip.x) / this.cellWidth;
+        int fromY = this.cameraY + Math.max(0, clip.y) / this.cellHeight;
+        int toX = Math.min(this.map.getMaxCellsX() - 1, this.cameraX + (clip.x + clip.width - 1) / this.cellWidth);
+        int toY = Math.min(this.map.getMaxCellsY() - 1, this.cameraY + (clip.y + clip.height - 1) / this.cellHeight);
+
+        for(int i = fromY; i <= toY; i++) {
+            for(int j = fromX; j <= toX; j++) {
+                this.renderCell(g, this.map.getCell(j, i), j, i);
+            }
+        }
+
+        /* Check if the player is inside the area to repaint */
+        if(this.isInsideArea(this.playerX, this.playerY, fromX, fromY, toX, toY)) {
+            this.renderPlayer(g, this.playerX, this.playerY);
+        }
+
+        /* Look up the enemies of the area to repaint on their grid, so that the rest of them are not visited */
+        for(int i = fromY; i <= toY; i++) {
+            for(int j = fromX; j <= toX; j++) {
+                for(int id = this.enemyGrid.getFirstAt(j, i); id != OccupancyGrid.NONE;
+                    id = this.enemyGrid.getNext(id)) {
+                    this.renderEnemy(g, this.enemyTypes[id], j, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Function to remember when the input shown by the next frame was received, so that the next paint measures the
+     * latency from the input to the screen. If several inputs arrive before the paint, the oldest one is kept.
+     * @param inputTime {@link System#nanoTime()} when the input was received.
+     */
+    public void markInput(long inputTime) {
+        if(this.pendingInputTime == 0) {
+            this.pendingInputTime = inputTime;
+        }
+    }
+
+    /**
+     * Function to check whether a cell is inside an area of cells.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     * @param fromX First X-axis position (inclusive) of the area.
+     * @param fromY First Y-axis position (inclusive) of the area.
+     * @param toX Last X-axis position (inclusive) of the area.
+     * @param toY Last Y-axis position (inclusive) of the area.
+     * @return Result of the checkup.
+     */
+    private boolean isInsideArea(int x, int y, int fromX, int fromY, int toX, int toY) {
+        return x >= fromX && x <= toX && y >= fromY && y <= toY;
+    }
+
+    /**
+     * Function to check whether the {@link GameMap} is too big to fit on the panel, so that only the cells seen by
+     * the camera are painted.
+     * @return Result of the checkup.
+     */
+    private boolean isCameraMode() {
+        return this.getWidth() / this.map.getMaxCellsX() < MIN_FIT_TILE_SIZE ||
+                this.getHeight() / this.map.getMaxCellsY() < MIN_FIT_TILE_SIZE;
+    }
+
+    /**
+     * Function to centre the camera on the {@link model.entities.player.Player}, without showing anything beyond the
+     * edges of the {@link GameMap}, and hint the map to get the cells around the camera ready.
+     * @return Whether the camera has moved or not.
+     */
+    private boolean updateCamera() {
+        int columns = (this.getWidth() + CAMERA_TILE_SIZE - 1) / CAMERA_TILE_SIZE;
+        int rows = (this.getHeight() + CAMERA_TILE_SIZE - 1) / CAMERA_TILE_SIZE;
+        int cameraX = Math.max(0, Math.min(this.playerX - columns / 2, this.map.getMaxCellsX() - columns));
+        int cameraY = Math.max(0, Math.min(this.playerY - rows / 2, this.map.getMaxCellsY() - rows));
+
+        this.cellWidth = CAMERA_TILE_SIZE;
+        this.cellHeight = CAMERA_TILE_SIZE;
+
+        if(cameraX == this.cameraX && cameraY == this.cameraY) {
+            return false;
+        }
+
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+
+        /* Get the cells around the camera ready on maps loaded on demand */
+        this.map.prefetch(cameraX - columns, cameraY - rows, cameraX + columns * 2, cameraY + rows * 2);
+
+        return true;
+    }
+
+    /**
+     * Function to pre-composite the whole {@link GameMap}'s terrain into an image, so that it is only painted again
+     * on resize or when the map changes.
+     */
+    private void renderTerrainLayer() {
+        this.spriteAtlas.setCellSize(this.cellWidth, this.cellHeight);
+
+        int layerWidth = this.cellWidth * this.map.getMaxCellsX();
+        int layerHeight = this.cellHeight * this.map.getMaxCellsY();
+
+        if(layerWidth <= 0 || layerHeight <= 0) {
+            this.terrainLayer = null;
+            return;
+        }
+
+        /* Use an image compatible with the screen when possible so that it can be accelerated */
+        GraphicsConfiguration graphicsConfiguration = this.getGraphicsConfiguration();
+        this.terrainLayer = graphicsConfiguration != null ?
+                graphicsConfiguration.createCompatibleImage(layerWidth, layerHeight) :
+                new BufferedImage(layerWidth, layerHeight, BufferedImage.TYPE_INT_RGB);
+
+        Graphics g = this.terrainLayer.getGraphics();
 
         for(int i = 0; i < this.map.getMaxCellsY(); i++) {
             for(int j = 0; j < this.map.getMaxCellsX(); j++) {
-                char cell = this.map.getMap()[i][j];
-                boolean isPlayerPosition = this.playerPosition.getX() == j && this.playerPosition.getY() == i;
+                this.renderCell(g, this.map.getCell(j, i), j, i);
+            }
+        }
 
-                /* Render the cell */
-                this.renderCell(g, cell, new MapPosition(j, i));
+        g.dispose();
+    }
 
-                /* Check if is the position of the player */
-                if(isPlayerPosition) {
-                    this.renderPlayer(g, new MapPosition(j, i));
-                }
+    /**
+     * Function to discard the cached terrain layer so that it is rebuilt on the next paint (e.g. when the
+     * {@link GameMap} is reloaded).
+     */
+    public void invalidateTerrain() {
+        this.terrainLayer = null;
 
-                /* TODO Check if is the position of any enemy */
+        this.repaint();
+    }
+
+    /**
+     * Function to render again some cells that have changed on the cached terrain layer and repaint only them, so
+     * that the rest of the terrain is not rebuilt.
+     * @param cells Packed positions (see {@link MapPosition#pack(int, int)}) of the changed cells.
+     */
+    public void invalidateCells(long[] cells) {
+        Graphics g = this.terrainLayer != null && !this.isCameraMode() ? this.terrainLayer.getGraphics() : null;
+
+        if(g != null) {
+            this.spriteAtlas.setCellSize(this.cellWidth, this.cellHeight);
+        }
+
+        for(long cell : cells) {
+            int x = MapPosition.unpackX(cell);
+            int y = MapPosition.unpackY(cell);
+
+            if(g != null) {
+                this.renderCell(g, this.map.getCell(x, y), x, y);
             }
+
+            this.repaintCell(x, y);
+        }
+
+        if(g != null) {
+            g.dispose();
         }
     }
 
@@ -57,9 +300,10 @@ public class GameBoard extends JPanel {
      * Function to render each cell from the {@link GameMap}'s terrain.
      * @param g Instance of {@link Graphics}.
      * @param cell Character of the cell (type of cell) to render.
-     * @param cellPosition MapPosition of the cell on the {@link GameMap}.
+     * @param x X-axis position of the cell on the {@link GameMap}.
+     * @param y Y-axis position of the cell on the {@link GameMap}.
      */
-    private void renderCell(Graphics g, char cell, MapPosition cellPosition) {
+    private void renderCell(Graphics g, char cell, int x, int y) {
         String asset = "";
 
         /* Determine the asset for the cell */
@@ -72,47 +316,136 @@ public class GameBoard extends JPanel {
             case GameMap.WALL_CELL -> asset = FilePath.ASSET_CELL_WALL;
         }
 
-        /* Get the cell's asset */
-        this.getAsset(asset);
-
-        /* Paint the cell */
-        g.drawImage(picture, this.cellWidth * cellPosition.getX(), this.cellHeight * cellPosition.getY(),
-                this.cellWidth, this.cellHeight, null);
+        /* Paint the cell with its pre-scaled asset */
+        g.drawImage(this.spriteAtlas.getScaledSprite(asset), this.cellWidth * (x - this.cameraX),
+                this.cellHeight * (y - this.cameraY), this.cellWidth, this.cellHeight, null);
     }
 
     /**
      * Function to render the {@link model.entities.player.Player} on the {@link GameMap}'s terrain.
      * @param g Instance of {@link Graphics}.
-     * @param playerPosition {@link model.entities.player.Player}'s position on the map.
+     * @param x X-axis position of the {@link model.entities.player.Player} on the map.
+     * @param y Y-axis position of the {@link model.entities.player.Player} on the map.
+     */
+    private void renderPlayer(Graphics g, int x, int y) {
+        /* Paint the player with its pre-scaled asset */
+        g.drawImage(this.spriteAtlas.getScaledSprite(FilePath.ASSET_PLAYER), this.cellWidth * (x - this.cameraX),
+                this.cellHeight * (y - this.cameraY), this.cellWidth, this.cellHeight, null);
+    }
+
+    /**
+     * Function to render an enemy on the {@link GameMap}'s terrain.
+     * @param g Instance of {@link Graphics}.
+     * @param type {@link EnemyType} of the enemy.
+     * @param x X-axis position of the enemy on the map.
+     * @param y Y-axis position of the enemy on the map.
      */
-    private void renderPlayer(Graphics g, MapPosition playerPosition) {
-        /* Get player's asset */
-        this.getAsset(FilePath.ASSET_PLAYER);
+    private void renderEnemy(Graphics g, EnemyType type, int x, int y) {
+        String asset = switch (type) {
+            case FLY -> FilePath.ASSET_ENEMY_FLY;
+            case SPIDER -> FilePath.ASSET_ENEMY_SPIDER;
+        };
+
+        /* Paint the enemy with its pre-scaled asset */
+        g.drawImage(this.spriteAtlas.getScaledSprite(asset), this.cellWidth * (x - this.cameraX),
+                this.cellHeight * (y - this.cameraY), this.cellWidth, this.cellHeight, null);
+    }
 
-        /* Paint the player */
-        g.drawImage(picture, this.cellWidth * playerPosition.getX(), this.cellHeight * playerPosition.getY(),
-                this.cellWidth, this.cellHeight, null);
+    /**
+     * Function to repaint a single cell of the {@link GameBoard}.
+     * @param x X-axis position of the cell.
+     * @param y Y-axis position of the cell.
+     */
+    private void repaintCell(int x, int y) {
+        this.repaint(this.cellWidth * (x - this.cameraX), this.cellHeight * (y - this.cameraY), this.cellWidth,
+                this.cellHeight);
     }
 
     /**
-     * Function to get the picture of a specified asset.
-     * @param assetPath Path of the asset.
+     * Function to update the {@link model.entities.player.Player}'s position on move and repaint only the cells
+     * it has left and entered, or the whole viewport if the camera has followed it.
+     * @param x New X-axis position of the {@link model.entities.player.Player}.
+     * @param y New Y-axis position of the {@link model.entities.player.Player}.
      */
-    private void getAsset(String assetPath) {
-        try {
-            this.picture = ImageIO.read(new File(assetPath));
-        } catch (IOException e) {
-            System.out.println("ERROR: Cannot find the asset!");
+    public void updatePlayerPosition(int x, int y) {
+        if(x == this.playerX && y == this.playerY) {
+            return;
+        }
+
+        this.repaintCell(this.playerX, this.playerY);
+
+        this.playerX = x;
+        this.playerY = y;
+
+        if(this.isCameraMode() && this.updateCamera()) {
+            this.repaint();
+            return;
         }
+
+        this.repaintCell(this.playerX, this.playerY);
     }
 
     /**
-     * Function to update the {@link model.entities.player.Player}'s position on move and repaint the {@link GameBoard}.
-     * @param playerPosition New {@link model.entities.player.Player}'s {@link MapPosition}.
+     * Function to copy the positions and types of the enemies of a {@link GameState}, tracking them on a grid so
+     * that the viewport can find the visible ones.
+     * @param state {@link GameState} to copy the enemies from.
      */
-    public void updatePlayerPosition(MapPosition playerPosition) {
-        this.playerPosition = playerPosition;
+    private void copyEnemies(GameState state) {
+        this.enemyXs = new int[state.getEnemyCount()];
+        this.enemyYs = new int[state.getEnemyCount()];
+        this.enemyTypes = new EnemyType[state.getEnemyCount()];
+        this.enemyGrid = new OccupancyGrid();
 
-        this.repaint();
+        for(int i = 0; i < this.enemyTypes.length; i++) {
+            this.enemyXs[i] = state.getEnemyX(i);
+            this.enemyYs[i] = state.getEnemyY(i);
+            this.enemyTypes[i] = state.getEnemyType(i);
+            this.enemyGrid.add(i, this.enemyXs[i], this.enemyYs[i]);
+        }
+    }
+
+    /**
+     * Function to check whether a {@link GameState} has the same enemies as the board, of the same types and in the
+     * same order, so that only their positions have to be updated.
+     * @param state {@link GameState} to check.
+     * @return Result of the checkup.
+     */
+    private boolean hasSameEnemies(GameState state) {
+        if(state.getEnemyCount() != this.enemyTypes.length) {
+            return false;
+        }
+
+        for(int i = 0; i < this.enemyTypes.length; i++) {
+            if(state.getEnemyType(i) != this.enemyTypes[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Function to update the positions of the enemies and repaint only the cells they have left and entered. If the
+     * enemies have been spawned again (e.g. after a reset or a reload of the map file), the whole board is repainted.
+     * @param state {@link GameState} with the new positions of the enemies.
+     */
+    public void updateEnemyPositions(GameState state) {
+        if(!this.hasSameEnemies(state)) {
+            this.copyEnemies(state);
+            this.repaint();
+            return;
+        }
+
+        for(int i = 0; i < this.enemyTypes.length; i++) {
+            if(state.getEnemyX(i) != this.enemyXs[i] || state.getEnemyY(i) != this.enemyYs[i]) {
+                this.repaintCell(this.enemyXs[i], this.enemyYs[i]);
+
+                this.enemyXs[i] = state.getEnemyX(i);
+                this.enemyYs[i] = state.getEnemyY(i);
+                this.enemyGrid.move(i, this.enemyXs[i], this.enemyYs[i]);
+
+                this.repaintCell(this.enemyXs[i], this.enemyYs[i]);
+            }
+        }
     }
 }
@@ -0,0 +1,87 @@
+package view;
+
+import model.metrics.HistogramSummary;
+import model.metrics.Metrics;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class MetricsOverlay extends JComponent {
+    private static final long serialVersionUID = 1L;
+    private static final int REFRESH_MILLIS = 500;
+    private static final int MARGIN = 10;
+    private static final int PADDING = 6;
+    private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 170);
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private final Timer refreshTimer;
+    private final Rectangle bounds;
+
+    public MetricsOverlay() {
+        this.bounds = new Rectangle();
+        this.refreshTimer = new Timer(REFRESH_MILLIS, event -> this.repaintOverlay());
+
+        this.setOpaque(false);
+    }
+
+    /**
+     * Function to show or hide the {@link MetricsOverlay}. While it is hidden, the metrics are not read.
+     */
+    public void toggle() {
+        boolean isVisible = !this.isVisible();
+
+        this.setVisible(isVisible);
+
+        if(isVisible) {
+            this.refreshTimer.start();
+        } else {
+            this.refreshTimer.stop();
+        }
+    }
+
+    /**
+     * Function to repaint only the area covered by the box of the metrics, so that the rest of the window is not
+     * painted again on every refresh.
+     */
+    private void repaintOverlay() {
+        this.repaint(this.bounds.x, this.bounds.y, this.bounds.width, this.bounds.height);
+    }
+
+    /**
+     * Function to paint the latest metrics on a translucent box at the top left corner.
+     * @param g Instance of {@link Graphics}.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        HistogramSummary[] summaries = Metrics.getSummaries();
+        String[] lines = new String[summaries.length + 1];
+
+        for(int i = 0; i < summaries.length; i++) {
+            lines[i] = summaries[i].toString();
+        }
+
+        lines[summaries.length] = "dropped ticks: " + Metrics.DROPPED_TICKS.sum() + "  coalesced states: " +
+                Metrics.COALESCED_STATES.sum() + "  coalesced inputs: " + Metrics.COALESCED_INPUTS.sum();
+
+        g.setFont(FONT);
+
+        FontMetrics fontMetrics = g.getFontMetrics();
+        int width = 0;
+
+        for(String line : lines) {
+            width = Math.max(width, fontMetrics.stringWidth(line));
+        }
+
+        /* Leave the old area included so that a shrinking box does not leave a trail */
+        this.bounds.setBounds(MARGIN, MARGIN, Math.max(this.bounds.width, width + PADDING * 2),
+                Math.max(this.bounds.height, fontMetrics.getHeight() * lines.length + PADDING * 2));
+
+        g.setColor(BACKGROUND_COLOR);
+        g.fillRect(MARGIN, MARGIN, width + PADDING * 2, fontMetrics.getHeight() * lines.length + PADDING * 2);
+        g.setColor(Color.WHITE);
+
+        for(int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], MARGIN + PADDING, MARGIN + PADDING + fontMetrics.getAscent() +
+                    fontMetrics.getHeight() * i);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package view;
+
+import model.dao.FilePath;
+import model.metrics.AssetLoadEvent;
+import model.metrics.Metrics;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class SpriteAtlas {
+    private static final String BMP_EXTENSION = ".bmp";
+    private static final String PNG_EXTENSION = ".png";
+    private final Map<String, BufferedImage> sprites;
+    private final Map<String, BufferedImage> scaledSprites;
+    private int scaledWidth;
+    private int scaledHeight;
+
+    public SpriteAtlas() {
+        this.sprites = new HashMap<>();
+        this.scaledSprites = new HashMap<>();
+        this.scaledWidth = 0;
+        this.scaledHeight = 0;
+
+        this.loadSprites();
+    }
+
+    /**
+     * Function to decode once every sprite under {@link FilePath#ASSETS_DIRECTORY_PATH}, including all the frame
+     * variants of each asset folder.
+     */
+    private void loadSprites() {
+        try (Stream<Path> paths = Files.walk(Paths.get(FilePath.ASSETS_DIRECTORY_PATH))) {
+            paths.filter(Files::isRegularFile)
+                    .filter(SpriteAtlas::isSpriteFile)
+                    .forEach(this::loadSprite);
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot read the assets directory!");
+        }
+    }
+
+    /**
+     * Function to check whether a file is a sprite that the atlas can decode.
+     * @param path Path of the file.
+     * @return Result of the checkup.
+     */
+    public static boolean isSpriteFile(Path path) {
+        return path.toString().endsWith(BMP_EXTENSION) || path.toString().endsWith(PNG_EXTENSION);
+    }
+
+    /**
+     * Function to decode a single sprite and store it on the atlas.
+     * @param path Path of the sprite file.
+     */
+    private void loadSprite(Path path) {
+        BufferedImage sprite = SpriteAtlas.decodeSprite(path);
+
+        if(sprite != null) {
+            this.sprites.put(SpriteAtlas.toAssetKey(path), sprite);
+        }
+    }
+
+    /**
+     * Function to decode a sprite file. It does not touch the atlas, so it can run on any thread.
+     * @param path Path of the sprite file.
+     * @return Decoded sprite or null if the file cannot be decoded.
+     */
+    public static BufferedImage decodeSprite(Path path) {
+        long startTime = System.nanoTime();
+        AssetLoadEvent event = new AssetLoadEvent();
+        BufferedImage sprite = null;
+
+        event.begin();
+
+        try {
+            sprite = ImageIO.read(path.toFile());
+        } catch (IOException exception) {
+            System.out.println("ERROR: Cannot find the asset " + path + "!");
+        }
+
+        event.path = path.toString();
+        event.commit();
+        Metrics.ASSET_LOAD_TIME.record(System.nanoTime() - startTime);
+
+        return sprite;
+    }
+
+    /**
+     * Function to swap the sprite of an asset for a new version, dropping only its scaled copy.
+     * @param path Path of the sprite file.
+     * @param sprite New decoded sprite.
+     */
+    public void replaceSprite(Path path, BufferedImage sprite) {
+        String key = SpriteAtlas.toAssetKey(path);
+
+        this.sprites.put(key, sprite);
+        this.scaledSprites.remove(key);
+    }
+
+    /**
+     * Function to build the key of a sprite so that it matches the {@link FilePath} asset constants.
+     * @param path Path of the sprite file.
+     * @return Key of the sprite on the atlas.
+     */
+    private static String toAssetKey(Path path) {
+        String key = path.normalize().toString().replace('\\', '/');
+
+        return key.startsWith("./") ? key : "./" + key;
+    }
+
+    /**
+     * Getter of the decoded sprite of an asset at its original size.
+     * @param assetPath Path of the asset (one of the {@link FilePath} constants or any frame variant).
+     * @return Decoded sprite or null if the asset does not exist.
+     */
+    public BufferedImage getSprite(String assetPath) {
+        return this.sprites.get(assetPath);
+    }
+
+    /**
+     * Function to set the size of the pre-scaled sprites. The scaled copies are only rebuilt when the size changes.
+     * @param width Width of a cell in pixels.
+     * @param height Height of a cell in pixels.
+     */
+    public void setCellSize(int width, int height) {
+        if(width != this.scaledWidth || height != this.scaledHeight) {
+            this.scaledWidth = width;
+            this.scaledHeight = height;
+            this.scaledSprites.clear();
+        }
+    }
+
+    /**
+     * Getter of the sprite of an asset pre-scaled to the current cell size.
+     * @param assetPath Path of the asset (one of the {@link FilePath} constants or any frame variant).
+     * @return Pre-scaled sprite or null if the asset does not exist.
+     */
+    public BufferedImage getScaledSprite(String assetPath) {
+        BufferedImage scaledSprite = this.scaledSprites.get(assetPath);
+
+        if(scaledSprite == null) {
+            BufferedImage sprite = this.sprites.get(assetPath);
+
+            if(sprite == null || this.scaledWidth <= 0 || this.scaledHeight <= 0) {
+                return sprite;
+            }
+
+            scaledSprite = SpriteAtlas.scale(sprite, this.scaledWidth, this.scaledHeight);
+            this.scaledSprites.put(assetPath, scaledSprite);
+        }
+
+        return scaledSprite;
+    }
+
+    /**
+     * Function to create a scaled copy of a sprite.
+     * @param sprite Sprite to scale.
+     * @param width Target width in pixels.
+     * @param height Target height in pixels.
+     * @return Scaled copy of the sprite.
+     */
+    private static BufferedImage scale(BufferedImage sprite, int width, int height) {
+        BufferedImage scaledSprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaledSprite.createGraphics();
+
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(sprite, 0, 0, width, height, null);
+        g.dispose();
+
+        return scaledSprite;
+    }
+}
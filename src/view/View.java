@@ -1,16 +1,17 @@
 package view;
 
-import controller.KeyboardController;
 import model.dao.FilePath;
-import model.entities.Entity;
-import model.entities.EntityDirection;
+import model.game.GameState;
+import model.game.GameStatus;
 import model.map.GameMap;
-import model.map.MapPosition;
-import model.entities.player.Player;
+import model.metrics.Metrics;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
 
 public class View extends JFrame {
     private static final int ICON_WIDTH = 25;
@@ -19,24 +20,31 @@ public class View extends JFrame {
     public static final String CONTROL_DOWN = "CONTROL_DOWN";
     public static final String CONTROL_LEFT = "CONTROL_LEFT";
     public static final String CONTROL_RIGHT = "CONTROL_RIGHT";
+    public static final String CONTROL_RESET = "CONTROL_RESET";
     private final GameMap map;
-    private Player player;
+    private final SpriteAtlas spriteAtlas;
+    private final GameState initialState;
     private HealthBar healthBar;
     private GameBoard gameBoard;
+    private MetricsOverlay metricsOverlay;
     private JButton controlUpButton;
     private JButton controlDownButton;
     private JButton controlLeftButton;
     private JButton controlRightButton;
+    private ActionListener actionListener;
+    private GameStatus gameStatus;
 
-    public View(GameMap map, Player player) {
+    public View(GameMap map, GameState initialState, SpriteAtlas spriteAtlas) {
         this.map = map;
-        this.player = player;
+        this.initialState = initialState;
+        this.spriteAtlas = spriteAtlas;
+        this.gameStatus = GameStatus.PLAYING;
 
         this.configureWindow();
         this.renderHealthBar();
         this.renderGame();
         this.renderDirectionButtons();
-        this.configureKeyboardListener();
+        this.renderMetricsOverlay();
     }
 
     /**
@@ -47,13 +55,14 @@ public class View extends JFrame {
         this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         this.setSize(new Dimension(1080, 720));
         this.setLocationRelativeTo(null);
+        this.setFocusable(true);
     }
 
     /**
      * Function to render the {@link HealthBar}.
      */
     private void renderHealthBar() {
-        this.healthBar = new HealthBar(Entity.MAX_PLAYER_HEALTH);
+        this.healthBar = new HealthBar(this.initialState.getPlayerHealth());
         this.add(this.healthBar, BorderLayout.NORTH);
     }
 
@@ -61,19 +70,41 @@ public class View extends JFrame {
      * Function to render the {@link GameBoard}.
      */
     private void renderGame() {
-        this.gameBoard = new GameBoard(this.map, this.player.getPosition());
+        this.gameBoard = new GameBoard(this.map, this.initialState, this.spriteAtlas);
 
         this.add(this.gameBoard, BorderLayout.CENTER);
     }
 
+    /**
+     * Function to render the {@link MetricsOverlay} as the glass pane of the {@link View}, hidden until it is toggled.
+     */
+    private void renderMetricsOverlay() {
+        this.metricsOverlay = new MetricsOverlay();
+
+        this.setGlassPane(this.metricsOverlay);
+    }
+
+    /**
+     * Function to show or hide the {@link MetricsOverlay}.
+     */
+    public void toggleMetricsOverlay() {
+        this.metricsOverlay.toggle();
+    }
+
     /**
      * Function to get the direction buttons' icons of a specific size.
      * @param path Path of the icon resource.
-     * @return Instance of {@link ImageIcon} to set on a direction button.
+     * @return Instance of {@link ImageIcon} to set on a direction button (empty if the icon cannot be loaded).
      */
     private ImageIcon setImageIcon(String path) {
-        return new ImageIcon(((new ImageIcon(path)).getImage()).getScaledInstance(View.ICON_WIDTH,
-                View.ICON_HEIGHT, Image.SCALE_SMOOTH));
+        BufferedImage sprite = this.spriteAtlas.getSprite(path);
+
+        if(sprite == null) {
+            System.out.println("ERROR: Cannot load the icon " + path + "!");
+            return new ImageIcon();
+        }
+
+        return new ImageIcon(sprite.getScaledInstance(View.ICON_WIDTH, View.ICON_HEIGHT, Image.SCALE_SMOOTH));
     }
 
     /**
@@ -125,6 +156,8 @@ public class View extends JFrame {
      * @param listener Instance of {@link ActionListener}.
      */
     public void addActionListener(ActionListener listener) {
+        this.actionListener = listener;
+
         this.controlUpButton.setActionCommand(CONTROL_UP);
         this.controlUpButton.addActionListener(listener);
 
@@ -145,156 +178,81 @@ public class View extends JFrame {
     }
 
     /**
-     * Function to add a {@link java.awt.event.KeyListener} to the {@link View}.
-     */
-    private void configureKeyboardListener() {
-        this.addKeyListener(new KeyboardController(this));
-        this.setFocusable(true);
-    }
-
-    /**
-     * Function to check whether an {@link Entity} can move to a cell or not (is a wall).
-     * @param futureEntityPosition The {@link MapPosition} where an {@link Entity} wants to move.
-     * @return Result of the checkup.
-     */
-    private boolean isPlayableCell(MapPosition futureEntityPosition) {
-        return this.map.getCellByPosition(futureEntityPosition) != GameMap.WALL_CELL;
-    }
-
-    /**
-     * Function to check whether the {@link Player} is on a spikes cell or not.
-     * @param playerPosition The {@link Player}'s position.
-     * @return Result of the checkup.
+     * Function to update the whole {@link View} from a snapshot of the game and check if a dialog has to be displayed
+     * (winning dialog or death dialog).
+     * @param state Latest {@link GameState} published by the game loop.
+     * @param inputTime {@link System#nanoTime()} when the latest input applied on the state was received, or 0 if
+     *                  no input has been applied since the previous update.
      */
-    private boolean isSpikesCell(MapPosition playerPosition) {
-        return this.map.getCellByPosition(playerPosition) == GameMap.SPIKES_CELL;
-    }
+    public void updateView(GameState state, long inputTime) {
+        long startTime = System.nanoTime();
 
-    /**
-     * Function to check whether an {@link Entity} can move to a desired {@link EntityDirection}.
-     * @param entityDirection {@link Entity}'s desired next move direction.
-     * @return Result of the checkup.
-     */
-    public boolean canEntityMove(MapPosition entityPosition, EntityDirection entityDirection) {
-        if(this.player.isAlive()) {
-            switch (entityDirection) {
-                case UP -> {
-                    if(entityPosition.getY() > 0 &&
-                            this.isPlayableCell(new MapPosition(entityPosition.getX(), entityPosition.getY() - 1))) {
-                        return true;
-                    }
-                }
-                case DOWN -> {
-                    if(entityPosition.getY() < (this.map.getMaxCellsY() - 1) &&
-                            this.isPlayableCell(new MapPosition(entityPosition.getX(), entityPosition.getY() + 1))) {
-                        return true;
-                    }
-                }
-                case LEFT -> {
-                    if(entityPosition.getX() > 0 &&
-                            this.isPlayableCell(new MapPosition(entityPosition.getX() - 1, entityPosition.getY()))) {
-                        return true;
-                    }
-                }
-                case RIGHT -> {
-                    if(entityPosition.getX() < (this.map.getMaxCellsX() - 1) &&
-                            this.isPlayableCell(new MapPosition(entityPosition.getX() + 1, entityPosition.getY()))) {
-                        return true;
-                    }
-                }
-            }
+        if(inputTime != 0) {
+            this.gameBoard.markInput(inputTime);
         }
 
-        return false;
-    }
+        this.healthBar.updateHealthBar(state.getPlayerHealth());
+        this.gameBoard.updatePlayerPosition(state.getPlayerX(), state.getPlayerY());
+        this.gameBoard.updateEnemyPositions(state);
 
-    /**
-     * Function to cause damage to the {@link Player}.
-     * @param damage Amount of damage to cause to the {@link Player}.
-     */
-    public void damagePlayer(int damage) {
-        this.player.setHealth(this.player.getHealth() - damage);
-    }
+        /* Only react when the status of the game changes */
+        if(state.getStatus() != this.gameStatus) {
+            this.gameStatus = state.getStatus();
 
-    /**
-     * Function to move the {@link Player} to a desired {@link EntityDirection}.
-     * @param playerDirection {@link Player}'s desired move direction.
-     */
-    public void movePlayer(EntityDirection playerDirection) {
-        MapPosition playerPosition = this.player.getPosition();
-
-        if(this.canEntityMove(this.player.getPosition(), playerDirection)) {
-            switch (playerDirection) {
-                case UP -> playerPosition.setY(playerPosition.getY() - 1);
-                case DOWN -> playerPosition.setY(playerPosition.getY() + 1);
-                case RIGHT -> playerPosition.setX(playerPosition.getX() + 1);
-                case LEFT -> playerPosition.setX(playerPosition.getX() - 1);
-            }
-
-            /* Check if player has moved to a spikes cell */
-            if(this.isSpikesCell(playerPosition)) {
-                this.damagePlayer(GameMap.SPIKES_CELL_DAMAGE);
+            switch (this.gameStatus) {
+                case DEAD -> this.showDialog("YOU DIED", "Oh, no! You ran out of HP!", false);
+                case WON -> this.showDialog("YOU WON", "Congratulations for reaching the end!", true);
+                case PLAYING -> this.setDirectionButtonsEnabled(true);
             }
-
-            /* TODO Check if player has been attacked by an enemy */
         }
+
+        Metrics.VIEW_UPDATE_TIME.record(System.nanoTime() - startTime);
     }
 
     /**
-     * Function to check whether the {@link Player} is on the {@link GameMap#END_CELL}.
-     * @return Result of the checkup.
+     * Function to enable or disable the direction control buttons.
+     * @param enabled Whether the buttons are enabled or not.
      */
-    public boolean hasPlayerWon() {
-        return this.map.getCellByPosition(this.player.getPosition()) == GameMap.END_CELL;
+    private void setDirectionButtonsEnabled(boolean enabled) {
+        this.controlUpButton.setEnabled(enabled);
+        this.controlDownButton.setEnabled(enabled);
+        this.controlLeftButton.setEnabled(enabled);
+        this.controlRightButton.setEnabled(enabled);
     }
 
     /**
-     * Function to update the {@link HealthBar}.
+     * Function to paint the whole {@link GameMap} again after its cells have changed (e.g. when a game is restored).
      */
-    private void updateHealthBar() {
-        this.healthBar.updateHealthBar(this.player.getHealth());
+    public void invalidateMap() {
+        this.gameBoard.invalidateTerrain();
     }
 
     /**
-     * Function to update the {@link GameBoard}.
+     * Function to paint again only some cells of the {@link GameMap} after they have changed (e.g. when the map file
+     * is reloaded).
+     * @param cells Packed positions (see {@link model.map.MapPosition#pack(int, int)}) of the changed cells.
      */
-    private void updatePlayerPosition() {
-        this.gameBoard.updatePlayerPosition(this.player.getPosition());
+    public void invalidateCells(long[] cells) {
+        this.gameBoard.invalidateCells(cells);
     }
 
     /**
-     * Function to update the whole {@link View} and check if a dialog has to be displayed (winning dialog or death
-     * dialog).
+     * Function to swap a sprite that has changed on disk, already decoded, and paint the board again with it.
+     * @param path Path of the sprite file.
+     * @param sprite New decoded sprite.
      */
-    public void updateView() {
-        this.updateHealthBar();
-        this.updatePlayerPosition();
-
-        /* Check if player has dead */
-        if(!this.player.isAlive()) {
-            this.showDialog("YOU DIED", "Oh, no! You ran out of HP!", false);
-        }
-
-        /* Check if player has won */
-        if(this.hasPlayerWon()) {
-            this.showDialog("YOU WON", "Congratulations for reaching the end!", true);
-        }
+    public void replaceSprite(Path path, BufferedImage sprite) {
+        this.spriteAtlas.replaceSprite(path, sprite);
+        this.gameBoard.invalidateTerrain();
     }
 
     /**
-     * Function to reset all and play again.
+     * Function to ask the controller to reset all and play again.
      */
     public void resetGame() {
-        this.player.setHealth(Entity.MAX_PLAYER_HEALTH);
-        this.player.setPosition(this.map.getPositionByCell(GameMap.START_PLAYER_CELL).get(0));
-        this.updateHealthBar();
-        this.updatePlayerPosition();
-
-        /* Enable direction control buttons */
-        this.controlUpButton.setEnabled(true);
-        this.controlDownButton.setEnabled(true);
-        this.controlLeftButton.setEnabled(true);
-        this.controlRightButton.setEnabled(true);
+        if(this.actionListener != null) {
+            this.actionListener.actionPerformed(new ActionEvent(this, ActionEvent.ACTION_PERFORMED, CONTROL_RESET));
+        }
     }
 
     /**
@@ -329,9 +287,6 @@ public class View extends JFrame {
         dialog.requestFocus();
 
         /* Disable direction control buttons to prevent duplicating the dialog */
-        this.controlUpButton.setEnabled(false);
-        this.controlDownButton.setEnabled(false);
-        this.controlLeftButton.setEnabled(false);
-        this.controlRightButton.setEnabled(false);
+        this.setDirectionButtonsEnabled(false);
     }
 }
\ No newline at end of file